@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.jackson;
+
+import org.hashids.Hashids;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import lombok.NonNull;
+
+/**
+ * 对 {@link Hashids} 的封装, 可选地缓存最近编码/解码的 id
+ * <p>
+ * Hashids 每次编码都要打乱字母表, 列表接口中重复出现的 id (如用户 id, 租户 id) 可以直接从缓存中取。缓存大小为 0 时不缓存。
+ */
+public final class HashIdCodec {
+
+    private final Hashids hashids;
+
+    private final Cache<Long, String> encodeCache;
+
+    private final Cache<String, Long> decodeCache;
+
+    public HashIdCodec(@NonNull Hashids hashids) {
+        this(hashids, 0L);
+    }
+
+    /**
+     * @param hashids 编码器
+     * @param cacheSize 编码和解码缓存各自的最大条数, 0 表示不缓存
+     */
+    public HashIdCodec(@NonNull Hashids hashids, long cacheSize) {
+        this.hashids = hashids;
+        if (cacheSize > 0) {
+            this.encodeCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+            this.decodeCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+        } else {
+            this.encodeCache = null;
+            this.decodeCache = null;
+        }
+    }
+
+    public String encode(long id) {
+        if (encodeCache == null) {
+            return hashids.encode(id);
+        }
+        String hash = encodeCache.getIfPresent(id);
+        if (hash == null) {
+            hash = hashids.encode(id);
+            encodeCache.put(id, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * 解码
+     *
+     * @param hash 编码后的字符串
+     * @return 第一个 id, 无法解码时返回 null
+     */
+    public Long decode(String hash) {
+        Long id = decodeCache == null ? null : decodeCache.getIfPresent(hash);
+        if (id != null) {
+            return id;
+        }
+        long[] decode = hashids.decode(hash);
+        if (decode.length == 0) {
+            return null;
+        }
+        id = decode[0];
+        if (decodeCache != null) {
+            decodeCache.put(hash, id);
+        }
+        return id;
+    }
+}
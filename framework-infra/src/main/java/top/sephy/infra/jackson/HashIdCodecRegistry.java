@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.jackson;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hashids.Hashids;
+
+/**
+ * 共享的 {@link HashIdCodec}, 相同 salt 和字母表只创建一个 {@link Hashids}
+ * <p>
+ * 序列化器在 Jackson 上下文化时从这里取编码器, 不再为每个属性新建 Hashids。
+ */
+public abstract class HashIdCodecRegistry {
+
+    private static final ConcurrentHashMap<Key, HashIdCodec> CODECS = new ConcurrentHashMap<>();
+
+    private static volatile long cacheSize;
+
+    /**
+     * 设置之后创建的编码器的缓存大小, 已创建的编码器会被丢弃并重新创建; 需要在 ObjectMapper 首次使用前调用
+     *
+     * @param size 编码和解码缓存各自的最大条数, 0 表示不缓存
+     */
+    public static void setCacheSize(long size) {
+        cacheSize = Math.max(0L, size);
+        CODECS.clear();
+    }
+
+    public static HashIdCodec defaultCodec() {
+        return get("", "");
+    }
+
+    /**
+     * 获取编码器
+     *
+     * @param salt 盐
+     * @param alphabet 字母表, 为空时使用 Hashids 的默认字母表
+     * @return 共享的编码器
+     */
+    public static HashIdCodec get(String salt, String alphabet) {
+        Key key = new Key(salt == null ? "" : salt, alphabet == null || alphabet.isEmpty() ? "" : alphabet);
+        HashIdCodec codec = CODECS.get(key);
+        return codec != null ? codec : CODECS.computeIfAbsent(key, HashIdCodecRegistry::create);
+    }
+
+    private static HashIdCodec create(Key key) {
+        Hashids hashids =
+            key.alphabet().isEmpty() ? new Hashids(key.salt()) : new Hashids(key.salt(), 0, key.alphabet());
+        return new HashIdCodec(hashids, cacheSize);
+    }
+
+    private record Key(String salt, String alphabet) {}
+}
@@ -30,4 +30,9 @@ import java.lang.annotation.Target;
 public @interface JsonHashId {
 
     String salt() default "";
+
+    /**
+     * 字母表, 为空时使用 Hashids 的默认字母表
+     */
+    String alphabet() default "";
 }
@@ -29,25 +29,33 @@ import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
+import lombok.NonNull;
+import top.sephy.infra.jackson.HashIdCodec;
+import top.sephy.infra.jackson.HashIdCodecRegistry;
 import top.sephy.infra.jackson.annotation.JsonHashId;
 
 public class HashIdDeserializer extends StdDeserializer<Long> implements ContextualDeserializer {
 
-    private Hashids hashids;
+    /**
+     * 没有 {@link JsonHashId} 注解的 Long 按普通数字解析, 所有属性共享
+     */
+    private static final JsonDeserializer<Long> PLAIN = new NumberDeserializers.LongDeserializer(Long.class, null);
 
-    public HashIdDeserializer(Hashids hashids) {
+    private final HashIdCodec codec;
+
+    public HashIdDeserializer(@NonNull Hashids hashids) {
+        this(new HashIdCodec(hashids));
+    }
+
+    public HashIdDeserializer(@NonNull HashIdCodec codec) {
         super(Long.class);
-        this.hashids = hashids;
+        this.codec = codec;
     }
 
     @Override
     public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
         if (p.hasTextCharacters()) {
-            String text = p.getText();
-            long[] decode = hashids.decode(text);
-            if (decode.length > 0) {
-                return decode[0];
-            }
+            return codec.decode(p.getText());
         }
         return null;
     }
@@ -55,12 +63,10 @@ public class HashIdDeserializer extends StdDeserializer<Long> implements Context
     @Override
     public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
         throws JsonMappingException {
-        JsonHashId jsonHashId = property.getAnnotation(JsonHashId.class);
+        JsonHashId jsonHashId = property == null ? null : property.getAnnotation(JsonHashId.class);
         if (jsonHashId != null) {
-            String salt = jsonHashId.salt();
-            Hashids hashIds = new Hashids(salt);
-            return new HashIdDeserializer(hashIds);
+            return new HashIdDeserializer(HashIdCodecRegistry.get(jsonHashId.salt(), jsonHashId.alphabet()));
         }
-        return NumberDeserializers.NumberDeserializer.instance;
+        return PLAIN;
     }
 }
@@ -29,15 +29,26 @@ import com.fasterxml.jackson.databind.ser.std.NumberSerializers;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import lombok.NonNull;
+import top.sephy.infra.jackson.HashIdCodec;
+import top.sephy.infra.jackson.HashIdCodecRegistry;
 import top.sephy.infra.jackson.annotation.JsonHashId;
 
 public class HashIdSerializer extends StdSerializer<Long> implements ContextualSerializer {
 
-    private Hashids hashids;
+    /**
+     * 没有 {@link JsonHashId} 注解的 Long 直接写数字, 所有属性共享
+     */
+    private static final JsonSerializer<?> PLAIN = new NumberSerializers.LongSerializer(Long.class);
+
+    private final HashIdCodec codec;
 
     public HashIdSerializer(@NonNull Hashids hashids) {
+        this(new HashIdCodec(hashids));
+    }
+
+    public HashIdSerializer(@NonNull HashIdCodec codec) {
         super(Long.class);
-        this.hashids = hashids;
+        this.codec = codec;
     }
 
     @Override
@@ -46,7 +57,7 @@ public class HashIdSerializer extends StdSerializer<Long> implements ContextualS
             gen.writeNull();
             return;
         }
-        gen.writeString(hashids.encode(value));
+        gen.writeString(codec.encode(value));
     }
 
     @Override
@@ -55,11 +66,9 @@ public class HashIdSerializer extends StdSerializer<Long> implements ContextualS
         if (property != null) {
             JsonHashId jsonHashId = property.getAnnotation(JsonHashId.class);
             if (jsonHashId != null) {
-                String salt = jsonHashId.salt();
-                Hashids hashIds = new Hashids(salt);
-                return new HashIdSerializer(hashIds);
+                return new HashIdSerializer(HashIdCodecRegistry.get(jsonHashId.salt(), jsonHashId.alphabet()));
             }
         }
-        return new NumberSerializers.LongSerializer(Long.class);
+        return PLAIN;
     }
 }
@@ -29,6 +29,8 @@ import top.sephy.infra.jackson.annotation.JsonDict;
 import top.sephy.infra.jackson.annotation.JsonDictMeta;
 import top.sephy.infra.option.CompositeCachedDictEntryProvider;
 import top.sephy.infra.option.DictEntry;
+import top.sephy.infra.option.DictIndex;
+import top.sephy.infra.option.DictSnapshot;
 
 public class JsonDictSerializer extends StdSerializer<Object> {
 
@@ -38,14 +40,29 @@ public class JsonDictSerializer extends StdSerializer<Object> {
 
     private final JsonDictMeta jsonDictMeta;
 
-    private final ConversionService conversionService;
+    private final String type;
+
+    private final boolean compareWithString;
+
+    private final boolean caseSensitive;
+
+    /**
+     * 注解上的默认标签转换为 labelClass 后的值, 只转换一次
+     */
+    private final Object defaultLabelVal;
+
+    private transient volatile IndexHandle indexHandle;
 
     public JsonDictSerializer(@NonNull CompositeCachedDictEntryProvider dictEntryProvider,
         @NonNull JsonDictMeta jsonDictMeta, @NonNull ConversionService conversionService) {
         super(Object.class);
         this.dictEntryProvider = dictEntryProvider;
         this.jsonDictMeta = jsonDictMeta;
-        this.conversionService = conversionService;
+        JsonDict annotation = jsonDictMeta.getAnnotation();
+        this.type = annotation.type();
+        this.compareWithString = annotation.compareWithString();
+        this.caseSensitive = annotation.caseSensitive();
+        this.defaultLabelVal = conversionService.convert(annotation.defaultLabelValue(), annotation.labelClass());
     }
 
     @Override
@@ -56,47 +73,62 @@ public class JsonDictSerializer extends StdSerializer<Object> {
         // 输出要添加 label 值
         gen.writeFieldName(jsonDictMeta.getLabelFieldName());
 
-        JsonDict annotation = jsonDictMeta.getAnnotation();
-        Object defaultLabelVal = conversionService.convert(annotation.defaultLabelValue(), annotation.labelClass());
+        // 同一个值 (包括集合中的所有元素) 使用同一个快照中的索引
+        DictIndex index = index();
 
         // 数组或者集合类型, 需要逐个输出
-        if (value instanceof Collection<?>) {
-            Collection<?> collection = (Collection<?>)value;
-            writeArray(gen, collection.toArray(), annotation, defaultLabelVal);
-        } else if (value instanceof Object[]) {
-            Object[] objects = (Object[])value;
-            writeArray(gen, objects, annotation, defaultLabelVal);
-        } else {
-            DictEntry<Object, Object> option = dictEntryProvider.lookUpOption(annotation.type(), value,
-                annotation.compareWithString(), annotation.caseSensitive());
-            Object val = option == null ? defaultLabelVal : option.getLabel();
-            if (val == null) {
-                val = defaultLabelVal;
+        if (value instanceof Collection<?> collection) {
+            gen.writeStartArray(collection, collection.size());
+            for (Object orig : collection) {
+                writeLabel(gen, index, orig);
             }
-            if (jsonDictMeta.isWriteString()) {
-                gen.writeString(String.valueOf(val));
-            } else {
-                gen.writeObject(val);
+            gen.writeEndArray();
+        } else if (value instanceof Object[] objects) {
+            gen.writeStartArray(objects, objects.length);
+            for (Object orig : objects) {
+                writeLabel(gen, index, orig);
             }
+            gen.writeEndArray();
+        } else {
+            writeLabel(gen, index, value);
         }
     }
 
-    private void writeArray(JsonGenerator gen, Object[] array, JsonDict annotation, Object defaultLabelVal)
-        throws IOException {
-        gen.writeStartArray();
-        for (Object orig : array) {
-            DictEntry<Object, Object> option = dictEntryProvider.lookUpOption(annotation.type(), orig,
-                annotation.compareWithString(), annotation.caseSensitive());
-            Object val = option == null ? defaultLabelVal : option.getLabel();
-            if (val == null) {
-                val = defaultLabelVal;
-            }
-            if (jsonDictMeta.isWriteString()) {
-                gen.writeString(String.valueOf(val));
-            } else {
-                gen.writeObject(val);
-            }
+    /**
+     * 字典刷新后快照会被替换, 快照未变化时复用上一次找到的索引
+     */
+    private DictIndex index() {
+        DictSnapshot snapshot = dictEntryProvider.snapshot();
+        IndexHandle handle = indexHandle;
+        if (handle == null || handle.snapshot() != snapshot) {
+            handle = new IndexHandle(snapshot, snapshot.getIndex(type));
+            indexHandle = handle;
+        }
+        return handle.index();
+    }
+
+    private void writeLabel(JsonGenerator gen, DictIndex index, Object orig) throws IOException {
+        DictEntry<Object, Object> option = orig == null ? null : index.lookUp(orig, compareWithString, caseSensitive);
+        Object val = option == null ? null : option.getLabel();
+        if (val == null) {
+            val = defaultLabelVal;
+        }
+        if (jsonDictMeta.isWriteString()) {
+            gen.writeString(val instanceof String str ? str : String.valueOf(val));
+        } else if (val == null) {
+            gen.writeNull();
+        } else if (val instanceof String str) {
+            gen.writeString(str);
+        } else if (val instanceof Integer i) {
+            gen.writeNumber(i);
+        } else if (val instanceof Long l) {
+            gen.writeNumber(l);
+        } else if (val instanceof Boolean b) {
+            gen.writeBoolean(b);
+        } else {
+            gen.writeObject(val);
         }
-        gen.writeEndArray();
     }
+
+    private record IndexHandle(DictSnapshot snapshot, DictIndex index) {}
 }
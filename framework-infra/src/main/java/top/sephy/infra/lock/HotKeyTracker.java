@@ -0,0 +1,209 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 热点 key 统计, 使用 Space-Saving 算法, 只保留固定数量的计数器, 内存占用与 key 的总数无关
+ * <p>
+ * 计数器已满时, 新 key 替换计数最小的计数器并继承其计数, 因此 count 是上界, count - error 是下界。出现次数超过 总次数 / capacity 的
+ * key 一定会被保留。
+ * <p>
+ * 计数器按 key 的哈希分段, 每段单独加锁, 段内用小顶堆找到计数最小的计数器, 记录一次为 O(log 段容量)。分段后上面的保证对每段分别成立,
+ * 容量较小时不分段。
+ */
+public class HotKeyTracker {
+
+    /**
+     * 每段至少保留的计数器数量
+     */
+    private static final int MIN_STRIPE_CAPACITY = 64;
+
+    private final int capacity;
+
+    private final Stripe[] stripes;
+
+    public HotKeyTracker(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param capacity 计数器总数
+     * @param concurrency 预计同时记录的线程数, 决定分段数量
+     */
+    public HotKeyTracker(int capacity, int concurrency) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, capacity / MIN_STRIPE_CAPACITY)));
+        int stripeCapacity = (capacity + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void record(String key) {
+        int h = key.hashCode();
+        stripes[(h ^ (h >>> 16)) & (stripes.length - 1)].record(key);
+    }
+
+    /**
+     * 按计数从高到低返回前 n 个 key
+     *
+     * @param n 数量
+     * @return 热点 key
+     */
+    public List<HotKey> top(int n) {
+        List<HotKey> result = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.collect(result);
+        }
+        result.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return result.size() > n ? new ArrayList<>(result.subList(0, n)) : result;
+    }
+
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * @param key 锁的 key
+     * @param count 计数上界
+     * @param error 可能多算的次数
+     */
+    public record HotKey(String key, long count, long error) {}
+
+    /**
+     * 一段计数器, heap 是按 count 排列的小顶堆, heap[0] 为计数最小的计数器
+     */
+    private static final class Stripe {
+
+        private final HashMap<String, Counter> counters;
+
+        private final Counter[] heap;
+
+        private int size;
+
+        private Stripe(int capacity) {
+            this.counters = new HashMap<>((int)(capacity / 0.75f) + 1);
+            this.heap = new Counter[capacity];
+        }
+
+        synchronized void record(String key) {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                counter.count++;
+                siftDown(counter);
+                return;
+            }
+            if (size < heap.length) {
+                counter = new Counter(key, 1L, 0L);
+                counters.put(key, counter);
+                counter.index = size;
+                heap[size++] = counter;
+                siftUp(counter);
+                return;
+            }
+            // 复用计数最小的计数器, 新 key 继承其计数
+            Counter min = heap[0];
+            counters.remove(min.key);
+            min.key = key;
+            min.error = min.count;
+            min.count++;
+            counters.put(key, min);
+            siftDown(min);
+        }
+
+        synchronized void collect(List<HotKey> result) {
+            for (int i = 0; i < size; i++) {
+                Counter c = heap[i];
+                result.add(new HotKey(c.key, c.count, c.error));
+            }
+        }
+
+        synchronized void clear() {
+            counters.clear();
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+        }
+
+        private void siftUp(Counter counter) {
+            int i = counter.index;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent].count <= counter.count) {
+                    break;
+                }
+                place(heap[parent], i);
+                i = parent;
+            }
+            place(counter, i);
+        }
+
+        private void siftDown(Counter counter) {
+            int i = counter.index;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && heap[right].count < heap[child].count) {
+                    child = right;
+                }
+                if (counter.count <= heap[child].count) {
+                    break;
+                }
+                place(heap[child], i);
+                i = child;
+            }
+            place(counter, i);
+        }
+
+        private void place(Counter counter, int index) {
+            heap[index] = counter;
+            counter.index = index;
+        }
+    }
+
+    private static final class Counter {
+
+        private String key;
+
+        private long error;
+
+        private long count;
+
+        private int index;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内的锁表, 同一个 key 在本 JVM 内对应同一把 {@link ReentrantLock}
+ * <p>
+ * 放在分布式锁之前使用: 本地竞争者先在这里排队, 只有拿到本地锁的线程才去请求 Redis, 热点 key 不会再有大量线程同时轮询 Redis。
+ * 每个 key 一把锁而不是按哈希分段, 不相关的 key 不会互相阻塞, 嵌套加锁时也不会因为哈希冲突引入新的死锁。没有线程使用的 key 会被移除。
+ */
+public class LocalLockTable {
+
+    private final boolean fair;
+
+    private final ConcurrentHashMap<String, Entry> locks = new ConcurrentHashMap<>();
+
+    public LocalLockTable() {
+        this(false);
+    }
+
+    /**
+     * @param fair 是否公平锁, 公平锁按等待顺序获取, 吞吐量较低
+     */
+    public LocalLockTable(boolean fair) {
+        this.fair = fair;
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    /**
+     * 获取 key 对应的锁并增加引用计数, 使用完后必须调用 {@link #release(String)}
+     *
+     * @param key 锁的 key
+     * @return 本地锁
+     */
+    public ReentrantLock retain(String key) {
+        return locks.compute(key, (k, entry) -> {
+            Entry e = entry == null ? new Entry(new ReentrantLock(fair)) : entry;
+            e.refs++;
+            return e;
+        }).lock;
+    }
+
+    /**
+     * 减少引用计数, 为 0 时移除
+     *
+     * @param key 锁的 key
+     */
+    public void release(String key) {
+        locks.computeIfPresent(key, (k, entry) -> --entry.refs == 0 ? null : entry);
+    }
+
+    /**
+     * 正在使用的 key 数量
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private static final class Entry {
+
+        private final ReentrantLock lock;
+
+        /**
+         * 只在 compute 中修改
+         */
+        private int refs;
+
+        Entry(ReentrantLock lock) {
+            this.lock = lock;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+import top.sephy.infra.lock.annotation.RedisLock;
+
+/**
+ * 分布式锁的监控指标
+ * <ul>
+ * <li>{@value #ACQUIRE}: 获取锁的等待时间, 标签 key(模板)/mode/kind/outcome</li>
+ * <li>{@value #HOLD}: 持有锁的时间, 标签 key(模板)/mode/kind</li>
+ * <li>{@value #SKIPPED}: {@link top.sephy.infra.lock.annotation.FailBehavior#IGNORE} 时获取锁失败跳过执行的次数</li>
+ * </ul>
+ * key 标签使用注解上的模板而不是解析后的值, 避免标签数量无限增长; 具体的热点 key 由 {@link HotKeyTracker} 统计。
+ */
+public class LockMetrics {
+
+    public static final String ACQUIRE = "lock.acquire";
+
+    public static final String HOLD = "lock.hold";
+
+    public static final String SKIPPED = "lock.skipped";
+
+    public static final int DEFAULT_HOT_KEYS = 64;
+
+    private final MeterRegistry registry;
+
+    private final HotKeyTracker hotKeys;
+
+    /**
+     * 每个加锁方法的指标只构建一次
+     */
+    private final ConcurrentHashMap<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public LockMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_HOT_KEYS);
+    }
+
+    /**
+     * @param registry 指标注册中心
+     * @param hotKeyCapacity 热点 key 统计保留的计数器数量
+     */
+    public LockMetrics(@NonNull MeterRegistry registry, int hotKeyCapacity) {
+        this.registry = registry;
+        this.hotKeys = new HotKeyTracker(hotKeyCapacity);
+    }
+
+    public void recordAcquire(Method method, RedisLock redisLock, List<String> lockKeys, Outcome outcome,
+        long nanos) {
+        meters(method, redisLock).acquire[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        for (String key : lockKeys) {
+            hotKeys.record(key);
+        }
+    }
+
+    public void recordHold(Method method, RedisLock redisLock, long nanos) {
+        meters(method, redisLock).hold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSkip(Method method, RedisLock redisLock) {
+        meters(method, redisLock).skipped.increment();
+    }
+
+    /**
+     * 加锁次数最多的 key
+     *
+     * @param n 数量
+     * @return 热点 key
+     */
+    public List<HotKeyTracker.HotKey> hotKeys(int n) {
+        return hotKeys.top(n);
+    }
+
+    private Meters meters(Method method, RedisLock redisLock) {
+        Meters m = meters.get(method);
+        return m != null ? m : meters.computeIfAbsent(method, k -> new Meters(registry, redisLock));
+    }
+
+    public enum Outcome {
+
+        /**
+         * 获取成功
+         */
+        ACQUIRED,
+
+        /**
+         * tryLock 超时
+         */
+        FAILED,
+
+        /**
+         * 被中断或抛出异常
+         */
+        ERROR
+    }
+
+    private static final class Meters {
+
+        private final Timer[] acquire;
+
+        private final Timer hold;
+
+        private final Counter skipped;
+
+        private Meters(MeterRegistry registry, RedisLock redisLock) {
+            String key = redisLock.key();
+            String mode = tagValue(redisLock.lockType());
+            String kind = tagValue(redisLock.kind());
+            Outcome[] outcomes = Outcome.values();
+            this.acquire = new Timer[outcomes.length];
+            for (Outcome outcome : outcomes) {
+                acquire[outcome.ordinal()] = Timer.builder(ACQUIRE).description("获取分布式锁的等待时间")
+                    .tags("key", key, "mode", mode, "kind", kind, "outcome", tagValue(outcome))
+                    .publishPercentileHistogram().register(registry);
+            }
+            this.hold = Timer.builder(HOLD).description("持有分布式锁的时间")
+                .tags("key", key, "mode", mode, "kind", kind).publishPercentileHistogram().register(registry);
+            this.skipped = Counter.builder(SKIPPED).description("获取锁失败跳过执行的次数")
+                .tags("key", key, "mode", mode, "kind", kind).register(registry);
+        }
+
+        private static String tagValue(Enum<?> value) {
+            return value.name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock.annotation;
+
+/**
+ * 锁的类型, 与获取方式 {@link LockMode} 组合使用
+ */
+public enum LockKind {
+
+    /**
+     * 互斥锁 {@link org.redisson.api.RLock}
+     */
+    EXCLUSIVE,
+
+    /**
+     * 读锁 {@link org.redisson.api.RReadWriteLock#readLock()}, 读锁之间共享, 与写锁互斥
+     */
+    READ,
+
+    /**
+     * 写锁 {@link org.redisson.api.RReadWriteLock#writeLock()}
+     */
+    WRITE
+}
@@ -27,12 +27,20 @@ import java.util.concurrent.TimeUnit;
 @Documented
 public @interface RedisLock {
 
+    /**
+     * 锁的 key, {@link KeyType#SPEL} 时表达式的结果可以是集合或数组, 所有 key 排序去重后一起加锁 (MultiLock)
+     */
     String key();
 
     KeyType keyType() default KeyType.DEFAULT;
 
     LockMode lockType() default LockMode.LOCK;
 
+    /**
+     * 互斥锁或读写锁, 同一个 key 不要混用互斥锁和读写锁
+     */
+    LockKind kind() default LockKind.EXCLUSIVE;
+
     long lockWaitTime() default 5L;
 
     long leaseTime() default 5L;
@@ -15,7 +15,12 @@
  */
 package top.sephy.infra.lock.annotation;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -29,6 +34,8 @@ import org.springframework.core.annotation.Order;
 import lombok.extern.slf4j.Slf4j;
 import top.sephy.infra.consts.AopOrderConstants;
 import top.sephy.infra.exception.SystemException;
+import top.sephy.infra.lock.LocalLockTable;
+import top.sephy.infra.lock.LockMetrics;
 import top.sephy.infra.utils.SpELUtils;
 
 @Slf4j
@@ -38,8 +45,29 @@ public class RedissonLockByAspect {
 
     private final RedissonClient redissonClient;
 
+    /**
+     * 不为 null 时启用两级锁: 同一 JVM 内的竞争者先在本地排队, 拿到本地锁后再获取 Redis 锁
+     */
+    private final LocalLockTable localLockTable;
+
+    /**
+     * 不为 null 时记录加锁等待时间, 持有时间, 跳过次数和热点 key
+     */
+    private final LockMetrics lockMetrics;
+
     public RedissonLockByAspect(RedissonClient redissonClient) {
+        this(redissonClient, null);
+    }
+
+    public RedissonLockByAspect(RedissonClient redissonClient, LocalLockTable localLockTable) {
+        this(redissonClient, localLockTable, null);
+    }
+
+    public RedissonLockByAspect(RedissonClient redissonClient, LocalLockTable localLockTable,
+        LockMetrics lockMetrics) {
         this.redissonClient = redissonClient;
+        this.localLockTable = localLockTable;
+        this.lockMetrics = lockMetrics;
     }
 
     @Pointcut("@annotation(top.sephy.infra.lock.annotation.RedisLock)")
@@ -52,44 +80,97 @@ public class RedissonLockByAspect {
         Method method = signature.getMethod();
         RedisLock redisLock = method.getAnnotation(RedisLock.class);
 
-        String lockKey =
-            redisLock.keyType() == KeyType.DEFAULT ? redisLock.key() : SpELUtils.parse(redisLock.key(), joinPoint);
+        List<String> lockKeys = redisLock.keyType() == KeyType.DEFAULT ? List.of(redisLock.key())
+            : resolveKeys(SpELUtils.parseToObject(redisLock.key(), joinPoint));
 
         LockMode lockType = redisLock.lockType();
+        LockKind kind = redisLock.kind();
 
-        RLock lock = redissonClient.getLock(lockKey);
+        // 读锁之间不互斥, 不经过本地锁, 否则同一 JVM 内的读者会被串行化
+        TwoLevelLock lock = new TwoLevelLock(remoteLock(lockKeys, kind), localLockTable,
+            kind == LockKind.READ ? List.of() : lockKeys);
+        LockCall call = new LockCall(method, redisLock, lockKeys);
         if (lockType == LockMode.LOCK) {
-            return proceedWithLock(joinPoint, lock, redisLock);
+            return proceedWithLock(joinPoint, lock, call);
         } else if (lockType == LockMode.LOCK_INTERRUPTIBLY) {
-            return proceedWithLockInterruptibly(joinPoint, lock, redisLock);
+            return proceedWithLockInterruptibly(joinPoint, lock, call);
         } else if (lockType == LockMode.TRYLOCK) {
-            return proceedTryLock(joinPoint, lock, redisLock);
+            return proceedTryLock(joinPoint, lock, call);
         }
         return joinPoint.proceed();
     }
 
+    /**
+     * 将 SpEL 的结果转换为排序去重后的 key 列表, 集合和数组中的每个元素都是一个 key
+     * <p>
+     * 所有节点都按相同的顺序加锁, 多个 key 交叉时不会死锁
+     *
+     * @param value SpEL 表达式的结果
+     * @return 有序的 key 列表
+     */
+    static List<String> resolveKeys(Object value) {
+        TreeSet<String> keys = new TreeSet<>();
+        if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                addKey(keys, element);
+            }
+        } else if (value != null && value.getClass().isArray()) {
+            for (int i = 0, len = Array.getLength(value); i < len; i++) {
+                addKey(keys, Array.get(value, i));
+            }
+        } else {
+            addKey(keys, value);
+        }
+        if (keys.isEmpty()) {
+            throw new SystemException("锁的 key 为空");
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static void addKey(TreeSet<String> keys, Object element) {
+        if (element != null) {
+            keys.add(String.valueOf(element));
+        }
+    }
+
+    private RLock remoteLock(List<String> lockKeys, LockKind kind) {
+        if (lockKeys.size() == 1) {
+            return remoteLock(lockKeys.get(0), kind);
+        }
+        RLock[] locks = new RLock[lockKeys.size()];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = remoteLock(lockKeys.get(i), kind);
+        }
+        return redissonClient.getMultiLock(locks);
+    }
+
+    private RLock remoteLock(String lockKey, LockKind kind) {
+        return switch (kind) {
+            case READ -> redissonClient.getReadWriteLock(lockKey).readLock();
+            case WRITE -> redissonClient.getReadWriteLock(lockKey).writeLock();
+            default -> redissonClient.getLock(lockKey);
+        };
+    }
+
     /**
      * 使用 lock() 方法获取锁
      * 
      * @param joinPoint
      * @param lock
-     * @param redisLock
+     * @param call
      * @return
      */
-    private Object proceedWithLock(ProceedingJoinPoint joinPoint, RLock lock, RedisLock redisLock) {
-        long leaseTime = redisLock.leaseTime();
-        if (leaseTime > 0) {
-            lock.lock(leaseTime, redisLock.timeUnit());
-        } else {
-            lock.lock();
-        }
+    private Object proceedWithLock(ProceedingJoinPoint joinPoint, TwoLevelLock lock, LockCall call) {
+        RedisLock redisLock = call.redisLock();
+        long start = System.nanoTime();
         try {
-            return joinPoint.proceed();
-        } catch (Throwable e) {
-            throw new SystemException(e);
-        } finally {
-            lock.unlock();
+            lock.lock(redisLock.leaseTime(), redisLock.timeUnit());
+        } catch (RuntimeException | Error e) {
+            recordAcquire(call, LockMetrics.Outcome.ERROR, start);
+            throw e;
         }
+        recordAcquire(call, LockMetrics.Outcome.ACQUIRED, start);
+        return proceedLocked(joinPoint, lock, call);
     }
 
     /**
@@ -97,24 +178,21 @@ public class RedissonLockByAspect {
      *
      * @param joinPoint
      * @param lock
-     * @param redisLock
+     * @param call
      * @return
      */
-    private Object proceedWithLockInterruptibly(ProceedingJoinPoint joinPoint, RLock lock, RedisLock redisLock)
+    private Object proceedWithLockInterruptibly(ProceedingJoinPoint joinPoint, TwoLevelLock lock, LockCall call)
         throws InterruptedException {
-        long leaseTime = redisLock.leaseTime();
-        if (leaseTime > 0) {
-            lock.lockInterruptibly(leaseTime, redisLock.timeUnit());
-        } else {
-            lock.lockInterruptibly();
-        }
+        RedisLock redisLock = call.redisLock();
+        long start = System.nanoTime();
         try {
-            return joinPoint.proceed();
-        } catch (Throwable e) {
-            throw new SystemException(e);
-        } finally {
-            lock.unlock();
+            lock.lockInterruptibly(redisLock.leaseTime(), redisLock.timeUnit());
+        } catch (InterruptedException | RuntimeException | Error e) {
+            recordAcquire(call, LockMetrics.Outcome.ERROR, start);
+            throw e;
         }
+        recordAcquire(call, LockMetrics.Outcome.ACQUIRED, start);
+        return proceedLocked(joinPoint, lock, call);
     }
 
     /**
@@ -122,38 +200,60 @@ public class RedissonLockByAspect {
      * 
      * @param joinPoint
      * @param lock
-     * @param redisLock
+     * @param call
      * @return
      */
-    private Object proceedTryLock(ProceedingJoinPoint joinPoint, RLock lock, RedisLock redisLock)
+    private Object proceedTryLock(ProceedingJoinPoint joinPoint, TwoLevelLock lock, LockCall call)
         throws InterruptedException {
-        long waitTime = redisLock.lockWaitTime();
-        long leaseTime = redisLock.leaseTime();
-        boolean locked = false;
-        if (waitTime > 0) {
-            if (leaseTime > 0) {
-                locked = lock.tryLock(waitTime, leaseTime, redisLock.timeUnit());
-            } else {
-                locked = lock.tryLock(waitTime, redisLock.timeUnit());
-            }
-        } else {
-            locked = lock.tryLock();
+        RedisLock redisLock = call.redisLock();
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = lock.tryLock(redisLock.lockWaitTime(), redisLock.leaseTime(), redisLock.timeUnit());
+        } catch (InterruptedException | RuntimeException | Error e) {
+            recordAcquire(call, LockMetrics.Outcome.ERROR, start);
+            throw e;
         }
 
         if (!locked) {
+            recordAcquire(call, LockMetrics.Outcome.FAILED, start);
             if (redisLock.failBehavior() == FailBehavior.FAIL_FAST) {
                 throw new SystemException("获取锁失败");
             } else {
+                if (lockMetrics != null) {
+                    lockMetrics.recordSkip(call.method(), redisLock);
+                }
                 return null;
             }
         }
 
+        recordAcquire(call, LockMetrics.Outcome.ACQUIRED, start);
+        return proceedLocked(joinPoint, lock, call);
+    }
+
+    /**
+     * 已获取锁, 执行方法后释放
+     */
+    private Object proceedLocked(ProceedingJoinPoint joinPoint, TwoLevelLock lock, LockCall call) {
+        long start = System.nanoTime();
         try {
             return joinPoint.proceed();
         } catch (Throwable e) {
             throw new SystemException(e);
         } finally {
             lock.unlock();
+            if (lockMetrics != null) {
+                lockMetrics.recordHold(call.method(), call.redisLock(), System.nanoTime() - start);
+            }
         }
     }
+
+    private void recordAcquire(LockCall call, LockMetrics.Outcome outcome, long start) {
+        if (lockMetrics != null) {
+            lockMetrics.recordAcquire(call.method(), call.redisLock(), call.lockKeys(), outcome,
+                System.nanoTime() - start);
+        }
+    }
+
+    private record LockCall(Method method, RedisLock redisLock, List<String> lockKeys) {}
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.redisson.api.RLock;
+
+import top.sephy.infra.lock.LocalLockTable;
+
+/**
+ * 先本地锁后分布式锁, 释放顺序相反; 未启用本地锁表或没有本地 key 时直接使用 {@link RLock}
+ * <p>
+ * 本地锁按传入的 key 顺序获取, 调用方需要保证 key 已排序, 避免多个 key 交叉加锁时死锁。一个实例只用于一次加锁/解锁。
+ */
+final class TwoLevelLock {
+
+    private final RLock remote;
+
+    private final LocalLockTable table;
+
+    private final List<String> localKeys;
+
+    /**
+     * 已引用的本地锁, 与 localKeys 前缀一一对应
+     */
+    private final List<ReentrantLock> retained;
+
+    /**
+     * retained 中已加锁的个数
+     */
+    private int locked;
+
+    TwoLevelLock(RLock remote, LocalLockTable table, List<String> localKeys) {
+        this.remote = remote;
+        this.table = table;
+        this.localKeys = table == null ? List.of() : localKeys;
+        this.retained = new ArrayList<>(this.localKeys.size());
+    }
+
+    void lock(long leaseTime, TimeUnit unit) {
+        for (String key : localKeys) {
+            retain(key).lock();
+            locked++;
+        }
+        try {
+            if (leaseTime > 0) {
+                remote.lock(leaseTime, unit);
+            } else {
+                remote.lock();
+            }
+        } catch (RuntimeException | Error e) {
+            releaseLocal();
+            throw e;
+        }
+    }
+
+    void lockInterruptibly(long leaseTime, TimeUnit unit) throws InterruptedException {
+        try {
+            for (String key : localKeys) {
+                retain(key).lockInterruptibly();
+                locked++;
+            }
+            if (leaseTime > 0) {
+                remote.lockInterruptibly(leaseTime, unit);
+            } else {
+                remote.lockInterruptibly();
+            }
+        } catch (InterruptedException | RuntimeException | Error e) {
+            releaseLocal();
+            throw e;
+        }
+    }
+
+    /**
+     * 本地等待的时间计入 waitTime, 总等待时间不超过 waitTime
+     */
+    boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(waitTime, 0));
+        boolean acquired;
+        try {
+            for (String key : localKeys) {
+                ReentrantLock localLock = retain(key);
+                long remaining = deadline - System.nanoTime();
+                if (!(waitTime > 0 ? localLock.tryLock(Math.max(0L, remaining), TimeUnit.NANOSECONDS)
+                    : localLock.tryLock())) {
+                    releaseLocal();
+                    return false;
+                }
+                locked++;
+            }
+            if (waitTime > 0) {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                acquired = leaseTime > 0 ? remote.tryLock(remaining, unit.toNanos(leaseTime), TimeUnit.NANOSECONDS)
+                    : remote.tryLock(remaining, TimeUnit.NANOSECONDS);
+            } else {
+                acquired = remote.tryLock();
+            }
+        } catch (InterruptedException | RuntimeException | Error e) {
+            releaseLocal();
+            throw e;
+        }
+        if (!acquired) {
+            releaseLocal();
+        }
+        return acquired;
+    }
+
+    void unlock() {
+        try {
+            remote.unlock();
+        } finally {
+            releaseLocal();
+        }
+    }
+
+    private ReentrantLock retain(String key) {
+        ReentrantLock lock = table.retain(key);
+        retained.add(lock);
+        return lock;
+    }
+
+    /**
+     * 逆序释放本地锁并减少引用计数
+     */
+    private void releaseLocal() {
+        for (int i = retained.size() - 1; i >= 0; i--) {
+            try {
+                if (i < locked) {
+                    retained.get(i).unlock();
+                }
+            } finally {
+                table.release(localKeys.get(i));
+            }
+        }
+        retained.clear();
+        locked = 0;
+    }
+}
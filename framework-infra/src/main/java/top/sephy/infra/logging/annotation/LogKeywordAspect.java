@@ -15,9 +15,12 @@
  */
 package top.sephy.infra.logging.annotation;
 
+import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -25,10 +28,13 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.MDC;
+import org.springframework.beans.BeanUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.util.ReflectionUtils;
 
 import lombok.extern.slf4j.Slf4j;
 import top.sephy.infra.consts.AopOrderConstants;
+import top.sephy.infra.utils.MethodExpressionEvaluator;
 import top.sephy.infra.utils.SpELUtils;
 
 /**
@@ -54,6 +60,22 @@ import top.sephy.infra.utils.SpELUtils;
 @Order(AopOrderConstants.LOG_KEYWORD)
 public class LogKeywordAspect {
 
+    /**
+     * 需要清理的 key 用 long 的位记录, 一个方法最多支持 64 个 LogKeyword
+     */
+    private static final int MAX_KEYWORDS = Long.SIZE;
+
+    /**
+     * {@code #{#param}} 或 {@code #{#param.property}}
+     */
+    private static final Pattern SIMPLE_REFERENCE =
+        Pattern.compile("#\\{\\s*#([A-Za-z_$][\\w$]*)(?:\\.([A-Za-z_$][\\w$]*))?\\s*}");
+
+    /**
+     * 每个方法的执行计划只构建一次
+     */
+    private final ConcurrentHashMap<Method, Plan> plans = new ConcurrentHashMap<>();
+
     /**
      * 匹配带有 @LogKeyword 或 @LogKeywords 注解的方法
      * <p>
@@ -71,39 +93,39 @@ public class LogKeywordAspect {
         MethodSignature signature = (MethodSignature)joinPoint.getSignature();
         Method method = signature.getMethod();
 
-        // 获取方法上的所有 LogKeyword 注解
-        LogKeyword[] logKeywords = getLogKeywords(method);
+        Plan plan = plans.get(method);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(method, k -> buildPlan(k, signature, joinPoint));
+        }
+        Entry[] entries = plan.entries();
+        Object[] args = joinPoint.getArgs();
 
-        // 存储需要清理的 MDC key
-        List<String> keysToClean = new ArrayList<>();
+        // 已放入 MDC 且需要清理的 entry, 按下标记录
+        long keysToClean = 0L;
 
         try {
             // 处理每个 LogKeyword 注解
-            for (LogKeyword logKeyword : logKeywords) {
+            for (int i = 0; i < entries.length; i++) {
+                Entry entry = entries[i];
                 try {
-                    String keyword = logKeyword.keyword();
-                    String spel = logKeyword.spel();
-                    boolean clearBeforeReturn = logKeyword.clearBeforeReturn();
-
-                    // 解析 SpEL 表达式
-                    Object value = SpELUtils.parseToObject(spel, joinPoint);
+                    Object value = entry.reader().read(args);
 
                     // 将值放入 MDC
                     if (value != null) {
-                        MDC.put(keyword, String.valueOf(value));
-                        log.trace("已将关键字 [{}] 的值 [{}] 放入 MDC", keyword, value);
+                        MDC.put(entry.keyword(), String.valueOf(value));
+                        log.trace("已将关键字 [{}] 的值 [{}] 放入 MDC", entry.keyword(), value);
                     } else {
-                        MDC.put(keyword, "");
-                        log.trace("已将关键字 [{}] 的空值放入 MDC", keyword);
+                        MDC.put(entry.keyword(), "");
+                        log.trace("已将关键字 [{}] 的空值放入 MDC", entry.keyword());
                     }
 
                     // 如果需要清理，记录 key
-                    if (clearBeforeReturn) {
-                        keysToClean.add(keyword);
+                    if (entry.clearBeforeReturn()) {
+                        keysToClean |= 1L << i;
                     }
 
                 } catch (Exception e) {
-                    log.warn("处理 LogKeyword 注解时发生异常，keyword: {}, spel: {}", logKeyword.keyword(), logKeyword.spel(), e);
+                    log.warn("处理 LogKeyword 注解时发生异常，keyword: {}, spel: {}", entry.keyword(), entry.spel(), e);
                 }
             }
 
@@ -112,11 +134,81 @@ public class LogKeywordAspect {
 
         } finally {
             // 清理 MDC
-            for (String key : keysToClean) {
-                MDC.remove(key);
-                log.trace("已从 MDC 中移除关键字 [{}]", key);
+            if (plan.needsCleanup()) {
+                for (int i = 0; i < entries.length; i++) {
+                    if ((keysToClean & (1L << i)) != 0) {
+                        MDC.remove(entries[i].keyword());
+                        log.trace("已从 MDC 中移除关键字 [{}]", entries[i].keyword());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 构建方法的执行计划: 注解只解析一次, 简单的参数引用不经过 SpEL
+     */
+    private Plan buildPlan(Method method, MethodSignature signature, ProceedingJoinPoint joinPoint) {
+        LogKeyword[] logKeywords = getLogKeywords(method);
+        if (logKeywords.length > MAX_KEYWORDS) {
+            log.warn("方法 {} 上的 LogKeyword 超过 {} 个, 多余的将被忽略", method, MAX_KEYWORDS);
+            logKeywords = Arrays.copyOf(logKeywords, MAX_KEYWORDS);
+        }
+        String[] paramNames = signature.getParameterNames();
+        Entry[] entries = new Entry[logKeywords.length];
+        boolean needsCleanup = false;
+        for (int i = 0; i < logKeywords.length; i++) {
+            LogKeyword logKeyword = logKeywords[i];
+            entries[i] = new Entry(logKeyword.keyword(), logKeyword.spel(), logKeyword.clearBeforeReturn(),
+                newReader(method, paramNames, logKeyword.spel(), joinPoint));
+            needsCleanup |= logKeyword.clearBeforeReturn();
+        }
+        return new Plan(entries, needsCleanup);
+    }
+
+    private ValueReader newReader(Method method, String[] paramNames, String spel, ProceedingJoinPoint joinPoint) {
+        MethodExpressionEvaluator.MethodExpression expression;
+        try {
+            expression = SpELUtils.expression(spel, joinPoint);
+        } catch (RuntimeException e) {
+            // 表达式无法解析, 每次调用都按原来的方式记录警告
+            return args -> {
+                throw e;
+            };
+        }
+        Matcher matcher = SIMPLE_REFERENCE.matcher(spel);
+        int index = matcher.matches() ? indexOf(paramNames, matcher.group(1)) : -1;
+        if (index < 0) {
+            return expression::getValue;
+        }
+        String property = matcher.group(2);
+        if (property == null) {
+            return args -> args[index];
+        }
+        PropertyDescriptor descriptor =
+            BeanUtils.getPropertyDescriptor(method.getParameterTypes()[index], property);
+        Method getter = descriptor == null ? null : descriptor.getReadMethod();
+        if (getter == null) {
+            return expression::getValue;
+        }
+        ReflectionUtils.makeAccessible(getter);
+        return args -> {
+            Object target = args[index];
+            // 参数为 null 时交给 SpEL, 保持原来的异常和日志
+            return target == null ? expression.getValue(args) : getter.invoke(target);
+        };
+    }
+
+    private static int indexOf(String[] paramNames, String name) {
+        if (paramNames == null || "root".equals(name) || "this".equals(name)) {
+            return -1;
+        }
+        for (int i = 0; i < paramNames.length; i++) {
+            if (name.equals(paramNames[i])) {
+                return i;
             }
         }
+        return -1;
     }
 
     /**
@@ -141,4 +233,18 @@ public class LogKeywordAspect {
         // 如果都没有，返回空数组
         return new LogKeyword[0];
     }
+
+    @FunctionalInterface
+    private interface ValueReader {
+
+        Object read(Object[] args) throws Exception;
+    }
+
+    private record Entry(String keyword, String spel, boolean clearBeforeReturn, ValueReader reader) {}
+
+    /**
+     * @param entries 方法上的 LogKeyword
+     * @param needsCleanup 是否有需要在返回前清理的 key
+     */
+    private record Plan(Entry[] entries, boolean needsCleanup) {}
 }
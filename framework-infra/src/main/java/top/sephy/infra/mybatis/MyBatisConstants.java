@@ -21,4 +21,9 @@ public abstract class MyBatisConstants {
 
     public static final String PARAM_UPDATED_BY = "updatedBy";
 
+    /**
+     * 批量写入方法的实体集合参数名, 见 CustomBaseMapper#batchInsertAllColumn
+     */
+    public static final String PARAM_ENTITY_LIST = "entityList";
+
 }
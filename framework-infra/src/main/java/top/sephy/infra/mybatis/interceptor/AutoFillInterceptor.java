@@ -20,6 +20,8 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.apache.ibatis.binding.MapperMethod;
 import org.apache.ibatis.executor.Executor;
@@ -30,9 +32,8 @@ import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Invocation;
 import org.apache.ibatis.plugin.Plugin;
 import org.apache.ibatis.plugin.Signature;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ReflectionUtils;
 
@@ -45,6 +46,7 @@ import top.sephy.infra.mybatis.audit.annotaton.CreatorName;
 import top.sephy.infra.mybatis.audit.annotaton.ModifiedTime;
 import top.sephy.infra.mybatis.audit.annotaton.ModifierId;
 import top.sephy.infra.mybatis.audit.annotaton.ModifierName;
+import top.sephy.infra.utils.LambdaAccessorUtils;
 
 @Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
 public class AutoFillInterceptor implements Interceptor {
@@ -69,146 +71,157 @@ public class AutoFillInterceptor implements Interceptor {
         if (args.length > 1) {
             Object arg = args[1];
             if (arg != null) {
-                Class<?> clazz = arg.getClass();
-                AuditingConfig config = null;
+                // 同一条语句内的所有实体共用一个时间戳和当前用户
+                AuditValues auditValues = new AuditValues(currentUserExtractor);
 
-                // 如果是集合类型, 取第一个元素的类型
+                // 如果是集合类型, 逐个元素填充
                 // mybatis 针对多参数，或者单个参数是Collection和Array
                 // 参数包装成MapperMethod.ParamMap（HashMap）,否则参数类型直接返回所传当前参数，
                 // 可看org.apache.ibatis.reflection.ParamNameResolver.wrapToMapIfCollection
-                if (MapperMethod.ParamMap.class.isAssignableFrom(clazz)) {
-                    MapperMethod.ParamMap<Object> paramMap = (MapperMethod.ParamMap<Object>)arg;
-                    if (paramMap.containsKey("collection")) {
-                        Collection entityList = (Collection)paramMap.get("collection");
-                        if (!CollectionUtils.isEmpty(entityList)) {
-                            for (Object elem : entityList) {
-                                clazz = elem.getClass();
-                                config = auditingConfigMap.computeIfAbsent(clazz, this::extractConfig);
-                                fillFields(mappedStatement, config, elem);
-                            }
+                if (arg instanceof MapperMethod.ParamMap<?> paramMap) {
+                    Object collection = paramMap.containsKey("collection") ? paramMap.get("collection") : null;
+                    fillCollection(mappedStatement, auditValues, collection);
+                    if (paramMap.containsKey(MyBatisConstants.PARAM_ENTITY_LIST)) {
+                        Object entityList = paramMap.get(MyBatisConstants.PARAM_ENTITY_LIST);
+                        // 单个集合参数同时以 collection 和 @Param 名称暴露时是同一个对象, 不重复处理
+                        if (entityList != collection) {
+                            fillCollection(mappedStatement, auditValues, entityList);
                         }
                     }
-                    Object currentUserId = currentUserExtractor.getCurrentUserId();
-                    if (paramMap.containsKey(MyBatisConstants.PARAM_CREATED_BY)) {
-                        paramMap.putIfAbsent(MyBatisConstants.PARAM_CREATED_BY, currentUserId);
+                    @SuppressWarnings("unchecked")
+                    MapperMethod.ParamMap<Object> params = (MapperMethod.ParamMap<Object>)paramMap;
+                    if (params.containsKey(MyBatisConstants.PARAM_CREATED_BY)) {
+                        params.putIfAbsent(MyBatisConstants.PARAM_CREATED_BY, auditValues.currentUserId());
                     }
-                    if (paramMap.containsKey(MyBatisConstants.PARAM_UPDATED_BY)) {
-                        paramMap.putIfAbsent(MyBatisConstants.PARAM_UPDATED_BY, currentUserId);
+                    if (params.containsKey(MyBatisConstants.PARAM_UPDATED_BY)) {
+                        params.putIfAbsent(MyBatisConstants.PARAM_UPDATED_BY, auditValues.currentUserId());
                     }
                 } else {
-                    config = auditingConfigMap.computeIfAbsent(clazz, this::extractConfig);
-                    fillFields(mappedStatement, config, arg);
+                    AuditingConfig config = auditingConfigMap.computeIfAbsent(arg.getClass(), this::extractConfig);
+                    fillFields(mappedStatement, config, auditValues, arg);
                 }
             }
         }
         return invocation.proceed();
     }
 
-    void fillFields(@NonNull MappedStatement mappedStatement, @NonNull AuditingConfig config, @NonNull Object object) {
-        Field createdTimeField = config.getCreatedTimeField();
-        Field modifiedTimeField = config.getModifiedTimeField();
+    /**
+     * 批量填充集合中的实体, 连续相同类型的元素只查找一次审计配置
+     */
+    private void fillCollection(MappedStatement mappedStatement, AuditValues auditValues, Object collection) {
+        if (!(collection instanceof Collection<?> entityList) || CollectionUtils.isEmpty(entityList)) {
+            return;
+        }
+        Class<?> lastClass = null;
+        AuditingConfig config = null;
+        for (Object elem : entityList) {
+            if (elem == null) {
+                continue;
+            }
+            Class<?> clazz = elem.getClass();
+            if (clazz != lastClass) {
+                config = auditingConfigMap.computeIfAbsent(clazz, this::extractConfig);
+                lastClass = clazz;
+            }
+            fillFields(mappedStatement, config, auditValues, elem);
+        }
+    }
+
+    void fillFields(@NonNull MappedStatement mappedStatement, @NonNull Object object) {
+        AuditingConfig config = auditingConfigMap.computeIfAbsent(object.getClass(), this::extractConfig);
+        fillFields(mappedStatement, config, new AuditValues(currentUserExtractor), object);
+    }
+
+    void fillFields(@NonNull MappedStatement mappedStatement, @NonNull AuditingConfig config,
+        @NonNull AuditValues auditValues, @NonNull Object object) {
+        AuditField createdTimeField = config.getCreatedTimeField();
+        AuditField modifiedTimeField = config.getModifiedTimeField();
 
-        BeanWrapper beanWrapper = null;
         SqlCommandType sqlCommandType = mappedStatement.getSqlCommandType();
         if (createdTimeField != null || modifiedTimeField != null) {
-            beanWrapper = new BeanWrapperImpl(object);
-            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime now = auditValues.now();
             if (sqlCommandType == SqlCommandType.INSERT) {
                 if (createdTimeField != null) {
-                    setValue(beanWrapper, createdTimeField, now);
+                    createdTimeField.setIfAbsent(object, now);
                 }
                 if (modifiedTimeField != null) {
-                    setValue(beanWrapper, modifiedTimeField, now);
+                    modifiedTimeField.setIfAbsent(object, now);
                 }
             } else if (sqlCommandType == SqlCommandType.UPDATE) {
                 if (modifiedTimeField != null) {
-                    setValue(beanWrapper, modifiedTimeField, now);
+                    modifiedTimeField.setIfAbsent(object, now);
                 }
             }
         }
 
         if (currentUserExtractor != null) {
-            Field creatorIdField = config.getCreatorIdField();
-            Field creatorNameField = config.getCreatorNameField();
-            Field modifierIdField = config.getModifierIdField();
-            Field modifierNameField = config.getModifierNameField();
+            AuditField creatorIdField = config.getCreatorIdField();
+            AuditField creatorNameField = config.getCreatorNameField();
+            AuditField modifierIdField = config.getModifierIdField();
+            AuditField modifierNameField = config.getModifierNameField();
             if (creatorIdField != null && creatorNameField != null || modifierIdField != null
                 || modifierNameField != null) {
 
-                Object currentUserId = currentUserExtractor.getCurrentUserId();
-                Object currentUserName = currentUserExtractor.getCurrentUserName();
-                if (beanWrapper == null) {
-                    beanWrapper = new BeanWrapperImpl(object);
-                }
+                Object currentUserId = auditValues.currentUserId();
+                Object currentUserName = auditValues.currentUserName();
 
                 if (sqlCommandType == SqlCommandType.INSERT) {
                     if (creatorIdField != null) {
-                        setValue(beanWrapper, creatorIdField, currentUserId);
+                        creatorIdField.setIfAbsent(object, currentUserId);
                     }
                     if (creatorNameField != null) {
-                        setValue(beanWrapper, creatorNameField, currentUserName);
+                        creatorNameField.setIfAbsent(object, currentUserName);
                     }
                     if (modifierIdField != null) {
-                        setValue(beanWrapper, modifierIdField, currentUserId);
+                        modifierIdField.setIfAbsent(object, currentUserId);
                     }
                     if (modifierNameField != null) {
-                        setValue(beanWrapper, modifierNameField, currentUserName);
+                        modifierNameField.setIfAbsent(object, currentUserName);
                     }
                 } else if (sqlCommandType == SqlCommandType.UPDATE) {
                     if (modifierIdField != null) {
-                        setValue(beanWrapper, modifierIdField, currentUserId);
+                        modifierIdField.setIfAbsent(object, currentUserId);
                     }
                     if (modifierNameField != null) {
-                        setValue(beanWrapper, modifierNameField, currentUserName);
+                        modifierNameField.setIfAbsent(object, currentUserName);
                     }
                 }
             }
         }
     }
 
-    private void setValue(BeanWrapper beanWrapper, Field field, Object value) {
-        String name = field.getName();
-        if (beanWrapper.getPropertyValue(name) == null) {
-            if (field.getType() != value.getClass()
-                && conversionService.canConvert(value.getClass(), field.getType())) {
-                value = conversionService.convert(value, field.getType());
-            }
-            beanWrapper.setPropertyValue(name, value);
-        }
-    }
-
     private synchronized AuditingConfig extractConfig(Class<?> clazz) {
         AuditingConfig config = new AuditingConfig();
         ReflectionUtils.doWithFields(clazz, field -> {
 
             CreatedTime createdTime = field.getAnnotation(CreatedTime.class);
             if (createdTime != null) {
-                config.setCreatedTimeField(field);
+                config.setCreatedTimeField(newAuditField(clazz, field, LocalDateTime.class));
             }
 
             ModifiedTime modifiedTime = field.getAnnotation(ModifiedTime.class);
             if (modifiedTime != null) {
-                config.setModifiedTimeField(field);
+                config.setModifiedTimeField(newAuditField(clazz, field, LocalDateTime.class));
             }
 
             CreatorId creatorId = field.getAnnotation(CreatorId.class);
             if (creatorId != null) {
-                config.setCreatorIdField(field);
+                config.setCreatorIdField(newAuditField(clazz, field, null));
             }
 
             CreatorName creatorName = field.getAnnotation(CreatorName.class);
             if (creatorName != null) {
-                config.setCreatorNameField(field);
+                config.setCreatorNameField(newAuditField(clazz, field, String.class));
             }
 
             ModifierId modifierId = field.getAnnotation(ModifierId.class);
             if (modifierId != null) {
-                config.setModifierIdField(field);
+                config.setModifierIdField(newAuditField(clazz, field, null));
             }
 
             ModifierName modifierName = field.getAnnotation(ModifierName.class);
             if (modifierName != null) {
-                config.setModifierNameField(field);
+                config.setModifierNameField(newAuditField(clazz, field, String.class));
             }
 
             // Version version = field.getAnnotation(Version.class);
@@ -219,6 +232,23 @@ public class AutoFillInterceptor implements Interceptor {
         return config;
     }
 
+    /**
+     * 生成审计字段访问器
+     *
+     * @param clazz 实体类
+     * @param field 审计字段
+     * @param valueType 已知的写入值类型, 用于预先确定类型转换, 未知时传 null
+     * @return 访问器
+     */
+    private AuditField newAuditField(Class<?> clazz, Field field, Class<?> valueType) {
+        AuditField auditField = new AuditField(field.getType(), LambdaAccessorUtils.getter(clazz, field),
+            LambdaAccessorUtils.setter(clazz, field), conversionService);
+        if (valueType != null) {
+            auditField.resolveConversion(valueType);
+        }
+        return auditField;
+    }
+
     @Override
     public Object plugin(Object target) {
         return Plugin.wrap(target, this);
@@ -232,16 +262,116 @@ public class AutoFillInterceptor implements Interceptor {
     @Data
     private static class AuditingConfig {
 
-        private Field createdTimeField;
+        private AuditField createdTimeField;
+
+        private AuditField modifiedTimeField;
+
+        private AuditField creatorIdField;
 
-        private Field modifiedTimeField;
+        private AuditField creatorNameField;
+
+        private AuditField modifierIdField;
+
+        private AuditField modifierNameField;
+    }
 
-        private Field creatorIdField;
+    /**
+     * 审计字段访问器, getter/setter 在首次遇到实体类时生成
+     */
+    private static class AuditField {
 
-        private Field creatorNameField;
+        private final Class<?> fieldType;
+
+        private final Function<Object, Object> getter;
+
+        private final BiConsumer<Object, Object> setter;
+
+        private final ConversionService conversionService;
+
+        /**
+         * 最近一次写入值的类型及对应的转换函数, 同一字段写入值的类型通常是固定的
+         */
+        private volatile ValueConversion conversion;
+
+        AuditField(Class<?> fieldType, Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+            ConversionService conversionService) {
+            this.fieldType = fieldType;
+            this.getter = getter;
+            this.setter = setter;
+            this.conversionService = conversionService;
+        }
 
-        private Field modifierIdField;
+        /**
+         * 字段值为 null 时写入
+         */
+        void setIfAbsent(Object target, Object value) {
+            if (value == null || getter.apply(target) != null) {
+                return;
+            }
+            ValueConversion current = this.conversion;
+            if (current == null || current.sourceType() != value.getClass()) {
+                current = resolveConversion(value.getClass());
+            }
+            setter.accept(target, current.converter().apply(value));
+        }
+
+        ValueConversion resolveConversion(Class<?> sourceType) {
+            Function<Object, Object> converter = Function.identity();
+            if (!ClassUtils.isAssignable(fieldType, sourceType)
+                && conversionService.canConvert(sourceType, fieldType)) {
+                converter = value -> conversionService.convert(value, fieldType);
+            }
+            ValueConversion resolved = new ValueConversion(sourceType, converter);
+            this.conversion = resolved;
+            return resolved;
+        }
+    }
+
+    /**
+     * 一条语句内共用的审计值, 首次使用时读取, 之后复用
+     */
+    static class AuditValues {
+
+        private final CurrentUserExtractor<Object> currentUserExtractor;
+
+        private LocalDateTime now;
+
+        private boolean userResolved;
+
+        private Object currentUserId;
+
+        private String currentUserName;
+
+        AuditValues(CurrentUserExtractor<Object> currentUserExtractor) {
+            this.currentUserExtractor = currentUserExtractor;
+        }
+
+        LocalDateTime now() {
+            if (now == null) {
+                now = LocalDateTime.now();
+            }
+            return now;
+        }
+
+        Object currentUserId() {
+            resolveUser();
+            return currentUserId;
+        }
+
+        String currentUserName() {
+            resolveUser();
+            return currentUserName;
+        }
+
+        private void resolveUser() {
+            if (!userResolved && currentUserExtractor != null) {
+                currentUserId = currentUserExtractor.getCurrentUserId();
+                currentUserName = currentUserExtractor.getCurrentUserName();
+            }
+            userResolved = true;
+        }
+    }
 
-        private Field modifierNameField;
+    private record ValueConversion(Class<?> sourceType, Function<Object, Object> converter) {
     }
 }
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.interceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.baomidou.mybatisplus.extension.parser.JsqlParserGlobal;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import com.github.pagehelper.util.MSUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import top.sephy.infra.paging.PagingQuery;
+import top.sephy.infra.paging.PagingResult;
+
+/**
+ * 分页 count 缓存, 需要注册在 PageHelper 的 PageInterceptor 之后 (即在它外层), {@link QueryConditionExtractorInterceptor} 之前
+ * <p>
+ * count 缓存需要通过 {@link #PagingCountInterceptor(Duration, long)} 开启。缓存 key 与 MyBatis 一级缓存相同, 即 SQL 加上全部绑定的参数值,
+ * 查询条件以外的参数 (如租户) 也会区分; 只有参数来自 {@link top.sephy.infra.paging.QueryObject} 的查询会被缓存。缓存在 TTL
+ * 到期或本应用写入了查询涉及的表时失效, 写入发生在事务中时事务结束后会再失效一次; 其他应用的写入只能等待 TTL。
+ * <p>
+ * 通过 {@link #page(PagingQuery, long, Supplier)} 可以开启近似计数, 最多数到上限, 超过时总数为上限且
+ * {@link PagingResult#isExact()} 为 false, 前端可以显示为 "10000+"。
+ */
+@Slf4j
+@Intercepts({
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class,
+        ResultHandler.class, CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class PagingCountInterceptor implements Interceptor {
+
+    private static final String COUNT_MS_SUFFIX = "_CAPPED_COUNT";
+
+    private static final ThreadLocal<CountHint> COUNT_HINT = new ThreadLocal<>();
+
+    /**
+     * 写入的表 -> 版本号, 缓存项记录写入时的版本号, 不一致即失效
+     */
+    private final ConcurrentHashMap<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 无法解析写入的表时递增, 使全部缓存失效
+     */
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    /**
+     * 未开启缓存时为 null
+     */
+    private final Cache<CacheKey, CountEntry> countCache;
+
+    /**
+     * 写语句 ID -> 写入的表, 无法解析时为空集合
+     */
+    private final Cache<String, Set<String>> writeTables = CacheBuilder.newBuilder().maximumSize(1024).build();
+
+    private final ConcurrentHashMap<String, MappedStatement> cappedCountStatements = new ConcurrentHashMap<>();
+
+    /**
+     * 是否缓存该查询的 count, 默认全部缓存
+     */
+    @Setter
+    private Predicate<MappedStatement> cacheable = ms -> true;
+
+    /**
+     * 不缓存 count, 只提供 {@link #page(PagingQuery, long, Supplier)} 的近似计数
+     */
+    public PagingCountInterceptor() {
+        this.countCache = null;
+    }
+
+    public PagingCountInterceptor(@NonNull Duration ttl, long maximumSize) {
+        this.countCache =
+            CacheBuilder.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).recordStats().build();
+    }
+
+    public CacheStats getCountCacheStats() {
+        return countCache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : countCache.stats();
+    }
+
+    /**
+     * 分页查询, count 最多数到 approximateCap
+     *
+     * @param query 分页参数
+     * @param approximateCap 计数上限
+     * @param select 查询方法
+     * @return 分页结果, 超过上限时 total 为上限, exact 为 false
+     * @param <T> 结果类型
+     */
+    public static <T> PagingResult<T> page(@NonNull PagingQuery query, long approximateCap,
+        @NonNull Supplier<List<T>> select) {
+        if (approximateCap <= 0) {
+            throw new IllegalArgumentException("approximateCap must be positive");
+        }
+        CountHint hint = new CountHint(approximateCap);
+        COUNT_HINT.set(hint);
+        try {
+            Page<T> page = PageHelper.<T>startPage(query.getPageNum(), query.getPageSize()).doSelectPage(select::get);
+            return PagingResult.fromPage(page, hint.exact);
+        } finally {
+            COUNT_HINT.remove();
+        }
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement)args[0];
+        if (args.length == 2) {
+            Object result = invocation.proceed();
+            if (countCache != null) {
+                invalidate(ms, args[1]);
+            }
+            return result;
+        }
+        Page<Object> page = PageHelper.getLocalPage();
+        if (page == null || !page.isCount()) {
+            return invocation.proceed();
+        }
+        Executor executor = (Executor)invocation.getTarget();
+        Object parameter = args[1];
+        CountHint hint = COUNT_HINT.get();
+        BoundSql boundSql = args.length == 6 ? (BoundSql)args[5] : null;
+        CacheKey cacheKey = null;
+        if (isCacheable(ms, parameter)) {
+            if (boundSql == null) {
+                boundSql = ms.getBoundSql(parameter);
+            }
+            cacheKey = cacheKey(executor, ms, parameter, boundSql, hint);
+        }
+        CountEntry entry = cacheKey == null ? null : countCache.getIfPresent(cacheKey);
+        if (entry != null && !isValid(entry)) {
+            countCache.invalidate(cacheKey);
+            entry = null;
+        }
+
+        if (entry == null && hint != null) {
+            // 近似计数由这里执行, PageHelper 只查数据
+            if (boundSql == null) {
+                boundSql = ms.getBoundSql(parameter);
+            }
+            Set<String> tables = cacheKey == null ? null : tablesOf(boundSql.getSql());
+            long global = globalVersion.get();
+            Map<String, Long> versions = tables == null ? null : currentVersions(tables);
+            long count = cappedCount(executor, ms, parameter, boundSql, hint.cap, page);
+            entry = new CountEntry(Math.min(count, hint.cap), count <= hint.cap, tables, global, versions);
+            if (tables != null) {
+                countCache.put(cacheKey, entry);
+            }
+        }
+        if (entry == null) {
+            Set<String> tables = cacheKey == null ? null : tablesOf(boundSql.getSql());
+            long global = globalVersion.get();
+            Map<String, Long> versions = tables == null ? null : currentVersions(tables);
+            Object result = invocation.proceed();
+            if (tables != null && page.getTotal() >= 0) {
+                countCache.put(cacheKey, new CountEntry(page.getTotal(), true, tables, global, versions));
+            }
+            return result;
+        }
+
+        if (hint != null) {
+            hint.exact = entry.exact();
+        }
+        page.setCount(false);
+        Object result = invocation.proceed();
+        page.setTotal(entry.total());
+        return result;
+    }
+
+    /**
+     * 数到 cap + 1 为止, 用于判断是否超过上限
+     */
+    private long cappedCount(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql, long cap,
+        Page<Object> page) throws Exception {
+        MappedStatement countMs = cappedCountStatements.computeIfAbsent(ms.getId(),
+            id -> MSUtils.newCountMappedStatement(ms, id + COUNT_MS_SUFFIX));
+        BoundSql countBoundSql = new BoundSql(ms.getConfiguration(), cappedCountSql(boundSql.getSql(), cap + 1),
+            boundSql.getParameterMappings(), parameter);
+        boundSql.getAdditionalParameters().forEach(countBoundSql::setAdditionalParameter);
+        CacheKey key = executor.createCacheKey(countMs, parameter, RowBounds.DEFAULT, countBoundSql);
+        // count 语句本身不能再被 PageHelper 分页
+        PageHelper.clearPage();
+        try {
+            List<Object> result =
+                executor.query(countMs, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, key, countBoundSql);
+            return result.isEmpty() || result.get(0) == null ? 0L : ((Number)result.get(0)).longValue();
+        } finally {
+            PageHelper.setLocalPage(page);
+        }
+    }
+
+    /**
+     * 能安全改写时只查询 {@code SELECT 1 ... LIMIT n}, 否则在原 SQL 外层包装
+     */
+    static String cappedCountSql(String sql, long limit) {
+        try {
+            Statement statement = JsqlParserGlobal.parse(sql);
+            if (statement instanceof PlainSelect select && select.getLimit() == null && select.getOffset() == null
+                && select.getDistinct() == null && select.getGroupBy() == null && select.getHaving() == null
+                && !hasParameter(select.getSelectItems()) && !hasParameter(select.getOrderByElements())) {
+                select.setSelectItems(new ArrayList<>(List.of(SelectItem.from(new LongValue(1)))));
+                select.setOrderByElements(null);
+                select.setLimit(new Limit().withRowCount(new LongValue(limit)));
+                return "SELECT COUNT(*) FROM (" + select + ") tmp_count";
+            }
+            if (statement instanceof PlainSelect select && (select.getLimit() != null || select.getOffset() != null)) {
+                return "SELECT COUNT(*) FROM (SELECT 1 FROM (" + sql + ") tmp_rows LIMIT " + limit + ") tmp_count";
+            }
+        } catch (Exception e) {
+            log.debug("无法解析分页 SQL, 使用外层包装计数: {}", sql, e);
+        }
+        return "SELECT COUNT(*) FROM (" + sql + " LIMIT " + limit + ") tmp_count";
+    }
+
+    private static boolean hasParameter(List<?> elements) {
+        if (elements == null) {
+            return false;
+        }
+        for (Object element : elements) {
+            if (String.valueOf(element).contains("?")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCacheable(MappedStatement ms, Object parameter) {
+        return countCache != null && parameter instanceof Map<?, ?> params
+            && params.get(QueryConditionExtractorInterceptor.EXPRESSIONS) instanceof List && cacheable.test(ms);
+    }
+
+    /**
+     * SQL 加上全部绑定的参数值, 条件拼在 SQL 中, 条件以外的参数只要参与了查询也会区分
+     */
+    private static CacheKey cacheKey(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql,
+        CountHint hint) {
+        CacheKey cacheKey = executor.createCacheKey(ms, parameter, RowBounds.DEFAULT, boundSql);
+        if (hint != null) {
+            cacheKey.update(hint.cap);
+        }
+        return cacheKey;
+    }
+
+    private void invalidate(MappedStatement ms, Object parameter) throws Exception {
+        // 动态 SQL 的条件会变, 写入的表不会变, 按 MappedStatement 缓存
+        Set<String> tables = writeTables.get(ms.getId(), () -> {
+            Set<String> parsed = tablesOf(ms.getBoundSql(parameter).getSql());
+            return parsed == null ? Set.of() : parsed;
+        });
+        bumpVersions(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 提交前其他连接读到的仍是旧数据, 本事务内读到的是未提交的数据, 这期间缓存的 count 在事务结束后都要失效
+            pendingInvalidation().add(tables);
+        }
+    }
+
+    /**
+     * @param tables 写入的表, 为空时使全部缓存失效
+     */
+    private void bumpVersions(Set<String> tables) {
+        if (tables.isEmpty()) {
+            globalVersion.incrementAndGet();
+            return;
+        }
+        for (String table : tables) {
+            tableVersions.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private PendingInvalidation pendingInvalidation() {
+        PendingInvalidation pending = (PendingInvalidation)TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInvalidation();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * 解析 SQL 涉及的表, 无法解析时返回 null
+     */
+    private static Set<String> tablesOf(String sql) {
+        try {
+            Set<String> names = new TablesNamesFinder<>().getTables(JsqlParserGlobal.parse(sql));
+            Set<String> tables = new HashSet<>(names.size());
+            for (String name : names) {
+                tables.add(normalizeTable(name));
+            }
+            return tables;
+        } catch (Exception e) {
+            log.debug("无法解析 SQL 涉及的表: {}", sql, e);
+            return null;
+        }
+    }
+
+    private static String normalizeTable(String name) {
+        String table = name.substring(name.lastIndexOf('.') + 1);
+        return table.replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    private Map<String, Long> currentVersions(Set<String> tables) {
+        Map<String, Long> versions = new HashMap<>(tables.size() * 2);
+        for (String table : tables) {
+            AtomicLong version = tableVersions.get(table);
+            versions.put(table, version == null ? 0L : version.get());
+        }
+        return versions;
+    }
+
+    private boolean isValid(CountEntry entry) {
+        if (entry.globalVersion() != globalVersion.get()) {
+            return false;
+        }
+        return entry.tableVersions().equals(currentVersions(entry.tables()));
+    }
+
+    /**
+     * 一个事务中写入过的表, 事务提交或回滚后统一递增版本号
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+
+        private final Set<String> tables = new HashSet<>();
+
+        private boolean global;
+
+        void add(Set<String> writeTables) {
+            if (writeTables.isEmpty()) {
+                global = true;
+            } else {
+                tables.addAll(writeTables);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PagingCountInterceptor.this);
+            bumpVersions(global ? Set.of() : tables);
+        }
+    }
+
+    private record CountEntry(long total, boolean exact, Set<String> tables, long globalVersion,
+        Map<String, Long> tableVersions) {
+    }
+
+    private static final class CountHint {
+
+        private final long cap;
+
+        private boolean exact = true;
+
+        CountHint(long cap) {
+            this.cap = cap;
+        }
+    }
+}
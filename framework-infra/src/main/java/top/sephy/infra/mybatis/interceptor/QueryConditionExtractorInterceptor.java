@@ -16,6 +16,7 @@
 package top.sephy.infra.mybatis.interceptor;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +29,7 @@ import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Invocation;
 import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
@@ -35,7 +37,6 @@ import top.sephy.infra.mybatis.query.QueryContext;
 import top.sephy.infra.mybatis.query.QueryContextExtractor;
 import top.sephy.infra.mybatis.query.QueryExpression;
 import top.sephy.infra.paging.QueryObject;
-import top.sephy.infra.utils.JacksonUtils;
 
 @Intercepts({
     @Signature(type = Executor.class, method = "query",
@@ -48,6 +49,18 @@ public class QueryConditionExtractorInterceptor implements Interceptor {
 
     public static final String EXPRESSION_MAP = "_expressionMap";
 
+    /**
+     * 预编译的 WHERE 条件片段, mapper 中以 {@code <where>${_whereSql}</where>} 引入, 代替遍历 {@link #EXPRESSIONS}
+     */
+    public static final String WHERE_SQL = "_whereSql";
+
+    public static final String WHERE_VALUES = QueryContext.WHERE_VALUES;
+
+    /**
+     * 游标分页的排序片段, mapper 中以 {@code ORDER BY ${_orderBySql}} 引入
+     */
+    public static final String ORDER_BY_SQL = "_orderBySql";
+
     private QueryContextExtractor queryContextExtractor;
 
     public QueryConditionExtractorInterceptor(QueryContextExtractor queryContextExtractor) {
@@ -63,10 +76,19 @@ public class QueryConditionExtractorInterceptor implements Interceptor {
             // 多个参数的情况
             if (params instanceof MapperMethod.ParamMap) {
                 Map<String, Object> paramsMap = (Map<String, Object>)params;
-                List<QueryContext> queryContextList = new ArrayList<>();
+                // 同一个对象会同时以 @Param 名称和 paramN 出现, 每个对象只提取一次
+                Map<Object, String> queryObjectNames = new IdentityHashMap<>();
                 for (Map.Entry<String, Object> entry : paramsMap.entrySet()) {
                     if (entry.getValue() instanceof QueryObject) {
-                        queryContextList.add(queryContextExtractor.extract(entry.getValue()));
+                        queryObjectNames.merge(entry.getValue(), entry.getKey(),
+                            QueryConditionExtractorInterceptor::preferredName);
+                    }
+                }
+                List<QueryContext> queryContextList = new ArrayList<>();
+                for (Map.Entry<String, Object> entry : paramsMap.entrySet()) {
+                    if (entry.getKey().equals(queryObjectNames.get(entry.getValue()))) {
+                        // 条件参数按查询对象的参数名分开, 同名属性不会绑定到其它对象的值
+                        queryContextList.add(queryContextExtractor.extract(entry.getValue()).nest(entry.getKey()));
                     }
                 }
                 QueryContext mergedContext = queryContextList.isEmpty() ? null : queryContextList.get(0);
@@ -79,6 +101,9 @@ public class QueryConditionExtractorInterceptor implements Interceptor {
                     paramsMap.put(EXPRESSIONS, mergedContext.getExpressions());
                     Map<String, QueryExpression<Object>> expressionMap = mergedContext.getExpressionMap();
                     paramsMap.put(EXPRESSION_MAP, expressionMap);
+                    paramsMap.put(WHERE_SQL, mergedContext.getWhereSql());
+                    paramsMap.put(WHERE_VALUES, mergedContext.getWhereValues());
+                    paramsMap.put(ORDER_BY_SQL, mergedContext.getOrderBySql());
                     // 将 QueryExpression 中的值设置到参数中, 因为 Converter 策略会修改实际的值
                     for (Map.Entry<String, QueryExpression<Object>> entry : expressionMap.entrySet()) {
                         paramsMap.put(entry.getKey(), entry.getValue().getVal());
@@ -86,13 +111,14 @@ public class QueryConditionExtractorInterceptor implements Interceptor {
                 }
             } else if (params instanceof QueryObject) {
                 Map<String, Object> paramMap = new MapperMethod.ParamMap<>();
-                QueryContext queryContext = queryContextExtractor.extract(params);
-                // 当 value == null 时, 会被忽略, 所以这里需要将 null 值也加入到 map 中
-                Map<String, Object> map = JacksonUtils.convertToMapIncludeNull(params);
-                paramMap.putAll(map);
+                // 查询条件和参数 (包括 null 值, 否则 mapper 中引用的属性会找不到) 一次提取
+                QueryContext queryContext = queryContextExtractor.extract(params, paramMap);
                 paramMap.put(EXPRESSIONS, queryContext.getExpressions());
                 Map<String, QueryExpression<Object>> expressionMap = queryContext.getExpressionMap();
                 paramMap.put(EXPRESSION_MAP, expressionMap);
+                paramMap.put(WHERE_SQL, queryContext.getWhereSql());
+                paramMap.put(WHERE_VALUES, queryContext.getWhereValues());
+                paramMap.put(ORDER_BY_SQL, queryContext.getOrderBySql());
                 // 将 QueryExpression 中的值设置到参数中, 因为 Converter 策略会修改实际的值
                 for (Map.Entry<String, QueryExpression<Object>> entry : expressionMap.entrySet()) {
                     paramMap.put(entry.getKey(), entry.getValue().getVal());
@@ -102,4 +128,24 @@ public class QueryConditionExtractorInterceptor implements Interceptor {
         }
         return invocation.proceed();
     }
+
+    /**
+     * 优先使用 @Param 或参数名, 其次才是 MyBatis 生成的 paramN
+     */
+    private static String preferredName(String current, String candidate) {
+        return isGenericName(current) && !isGenericName(candidate) ? candidate : current;
+    }
+
+    private static boolean isGenericName(String name) {
+        if (!name.startsWith(ParamNameResolver.GENERIC_NAME_PREFIX)
+            || name.length() == ParamNameResolver.GENERIC_NAME_PREFIX.length()) {
+            return false;
+        }
+        for (int i = ParamNameResolver.GENERIC_NAME_PREFIX.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
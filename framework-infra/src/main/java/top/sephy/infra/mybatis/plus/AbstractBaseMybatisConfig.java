@@ -15,9 +15,12 @@
  */
 package top.sephy.infra.mybatis.plus;
 
+import java.time.Duration;
+
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.Environment;
 import org.springframework.data.convert.Jsr310Converters;
 import org.springframework.data.util.NullableWrapperConverters;
 
@@ -29,13 +32,25 @@ import com.github.pagehelper.autoconfigure.PageHelperStandardProperties;
 
 import top.sephy.infra.mybatis.interceptor.AutoFillInterceptor;
 import top.sephy.infra.mybatis.interceptor.CurrentUserExtractor;
+import top.sephy.infra.mybatis.interceptor.PagingCountInterceptor;
 import top.sephy.infra.mybatis.interceptor.QueryConditionExtractorInterceptor;
+import top.sephy.infra.mybatis.plus.injector.SelectCursor;
 import top.sephy.infra.mybatis.query.DefaultQueryContextExtractor;
 import top.sephy.infra.mybatis.query.QueryContextExtractor;
 import top.sephy.infra.utils.ThreadContextUtils;
 
 public abstract class AbstractBaseMybatisConfig {
 
+    /**
+     * 分页 count 缓存的配置前缀, {@code enabled} 默认 false, {@code ttl} 默认 30s, {@code maximum-size} 默认 10000
+     */
+    public static final String PAGING_COUNT_CACHE_PREFIX = "mybatis.paging-count-cache";
+
+    /**
+     * selectCursor 的 fetchSize, 默认 {@link SelectCursor#DEFAULT_FETCH_SIZE}; MySQL 流式读取配置为 {@code -2147483648}
+     */
+    public static final String CURSOR_FETCH_SIZE = "mybatis.cursor-fetch-size";
+
     static DefaultConversionService CONVERSION_SERVICE =
         (DefaultConversionService)DefaultConversionService.getSharedInstance();
 
@@ -78,8 +93,9 @@ public abstract class AbstractBaseMybatisConfig {
     }
 
     @Bean
-    public CustomerSqlInjector customerSqlInjector() {
-        return new CustomerSqlInjector();
+    public CustomerSqlInjector customerSqlInjector(Environment environment) {
+        return new CustomerSqlInjector(
+            environment.getProperty(CURSOR_FETCH_SIZE, Integer.class, SelectCursor.DEFAULT_FETCH_SIZE));
     }
 
     // @Bean
@@ -88,9 +104,22 @@ public abstract class AbstractBaseMybatisConfig {
         return new QueryConditionExtractorInterceptor(queryContextExtractor);
     }
 
+    // @Bean
+    public PagingCountInterceptor pagingCountInterceptor(Environment environment) {
+        if (!environment.getProperty(PAGING_COUNT_CACHE_PREFIX + ".enabled", Boolean.class, false)) {
+            // 不缓存, 只提供近似计数
+            return new PagingCountInterceptor();
+        }
+        Duration ttl =
+            environment.getProperty(PAGING_COUNT_CACHE_PREFIX + ".ttl", Duration.class, Duration.ofSeconds(30));
+        long maximumSize = environment.getProperty(PAGING_COUNT_CACHE_PREFIX + ".maximum-size", Long.class, 10000L);
+        return new PagingCountInterceptor(ttl, maximumSize);
+    }
+
     @ConditionalOnClass(PageHelperStandardProperties.class)
     @Bean
-    public ConfigurationCustomizer mybatisPlusConfigurationCustomizer(PageHelperStandardProperties standardProperties) {
+    public ConfigurationCustomizer mybatisPlusConfigurationCustomizer(PageHelperStandardProperties standardProperties,
+        Environment environment) {
 
         return configuration -> {
             PageInterceptor pageInterceptor = new PageInterceptor();
@@ -98,6 +127,8 @@ public abstract class AbstractBaseMybatisConfig {
             configuration.addInterceptor(pageInterceptor);
             configuration.addInterceptor(mybatisPlusInterceptor());
             configuration.addInterceptor(auditingInterceptor());
+            // 需要在 PageInterceptor 外层, QueryConditionExtractorInterceptor 内层
+            configuration.addInterceptor(pagingCountInterceptor(environment));
             configuration.addInterceptor(queryConditionExtractorInterceptor(queryCriteriaExtractor()));
         };
     }
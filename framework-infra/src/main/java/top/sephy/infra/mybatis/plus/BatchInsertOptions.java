@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * 分批插入的参数
+ * <p>
+ * 每批的行数不超过 {@link #maxRows}, 设置了 {@link #maxBytes} 时按 {@link #sizeEstimator} 估算的大小同时限制每批的字节数,
+ * 避免单条 INSERT 超过 max_allowed_packet。除最后一批外每批行数相同时, 生成的 SQL 相同, 可以命中驱动的预编译语句缓存。
+ */
+@Data
+public class BatchInsertOptions {
+
+    public static final int DEFAULT_MAX_ROWS = 500;
+
+    /**
+     * 每批最多行数
+     */
+    private int maxRows = DEFAULT_MAX_ROWS;
+
+    /**
+     * 每批最多字节数, 小于等于 0 时不限制
+     */
+    private long maxBytes = 0;
+
+    /**
+     * 估算一行的字节数, 设置了 maxBytes 时必须提供
+     */
+    private ToLongFunction<Object> sizeEstimator;
+
+    /**
+     * 并发执行的批数, 大于 1 时各批在不同线程、不同连接上执行, 各自提交, 不在调用方的事务中
+     */
+    private int concurrency = 1;
+
+    /**
+     * 并发执行时使用的线程池, 为 null 时每次调用临时创建
+     */
+    private Executor executor;
+
+    public static BatchInsertOptions ofRows(int maxRows) {
+        BatchInsertOptions options = new BatchInsertOptions();
+        options.setMaxRows(maxRows);
+        return options;
+    }
+
+    public static BatchInsertOptions ofBytes(int maxRows, long maxBytes, @NonNull ToLongFunction<Object> sizeEstimator) {
+        BatchInsertOptions options = ofRows(maxRows);
+        options.setMaxBytes(maxBytes);
+        options.setSizeEstimator(sizeEstimator);
+        return options;
+    }
+}
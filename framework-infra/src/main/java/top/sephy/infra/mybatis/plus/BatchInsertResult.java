@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import java.util.List;
+
+/**
+ * 分批插入的结果
+ *
+ * @param rows 插入的总行数
+ * @param chunks 执行的批数
+ * @param keys 插入后实体的主键值, 与入参顺序一致; 实体没有主键时为空
+ */
+public record BatchInsertResult(int rows, int chunks, List<Object> keys) {
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+
+import lombok.NonNull;
+import top.sephy.infra.exception.SystemException;
+import top.sephy.infra.thread.NamedThreadFactory;
+
+/**
+ * 分批插入
+ */
+public abstract class BatchInsertUtils {
+
+    /**
+     * 按参数切分后逐批执行插入
+     *
+     * @param entityList 实体
+     * @param options 分批参数
+     * @param insertFunction 插入一批的方法, 如 {@link CustomBaseMapper#batchInsertAllColumn(Collection)}
+     * @return 插入结果
+     * @param <T> 实体类型
+     */
+    public static <T> BatchInsertResult insert(@NonNull Collection<T> entityList, @NonNull BatchInsertOptions options,
+        @NonNull ToIntFunction<List<T>> insertFunction) {
+        if (entityList.isEmpty()) {
+            return new BatchInsertResult(0, 0, List.of());
+        }
+        List<List<T>> chunks = partition(entityList, options);
+        int rows;
+        if (options.getConcurrency() <= 1 || chunks.size() == 1) {
+            rows = 0;
+            for (List<T> chunk : chunks) {
+                rows += insertFunction.applyAsInt(chunk);
+            }
+        } else {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                // 其他线程拿到的是新的连接, 无法加入当前事务
+                throw new IllegalStateException("并发分批插入不能在事务中执行");
+            }
+            rows = insertConcurrently(chunks, options, insertFunction);
+        }
+        return new BatchInsertResult(rows, chunks.size(), collectKeys(entityList));
+    }
+
+    static <T> List<List<T>> partition(Collection<T> entityList, BatchInsertOptions options) {
+        int maxRows = Math.max(1, options.getMaxRows());
+        long maxBytes = options.getMaxBytes();
+        ToLongFunction<Object> sizeEstimator = options.getSizeEstimator();
+        if (maxBytes > 0 && sizeEstimator == null) {
+            throw new IllegalArgumentException("sizeEstimator is required when maxBytes is set");
+        }
+        List<List<T>> chunks = new ArrayList<>(entityList.size() / maxRows + 1);
+        List<T> chunk = new ArrayList<>(Math.min(maxRows, entityList.size()));
+        long chunkBytes = 0;
+        for (T entity : entityList) {
+            long size = maxBytes > 0 ? sizeEstimator.applyAsLong(entity) : 0;
+            if (!chunk.isEmpty() && (chunk.size() >= maxRows || maxBytes > 0 && chunkBytes + size > maxBytes)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(Math.min(maxRows, entityList.size()));
+                chunkBytes = 0;
+            }
+            chunk.add(entity);
+            chunkBytes += size;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * 按并发数把批次分成若干条流水线, 每条流水线顺序执行, 同一时刻最多占用 concurrency 个连接
+     * <p>
+     * 任一流水线失败后其余流水线不再开始新的批次, 所有流水线都结束后才把异常抛给调用方
+     */
+    private static <T> int insertConcurrently(List<List<T>> chunks, BatchInsertOptions options,
+        ToIntFunction<List<T>> insertFunction) {
+        int lanes = Math.min(options.getConcurrency(), chunks.size());
+        Executor executor = options.getExecutor();
+        ExecutorService ownExecutor = null;
+        if (executor == null) {
+            ownExecutor = Executors.newFixedThreadPool(lanes, new NamedThreadFactory("batch-insert-", true));
+            executor = ownExecutor;
+        }
+        try {
+            AtomicBoolean failed = new AtomicBoolean();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(lanes);
+            for (int lane = 0; lane < lanes; lane++) {
+                int first = lane;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    int rows = 0;
+                    for (int i = first; i < chunks.size() && !failed.get(); i += lanes) {
+                        try {
+                            rows += insertFunction.applyAsInt(chunks.get(i));
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                    return rows;
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            int rows = 0;
+            for (CompletableFuture<Integer> future : futures) {
+                rows += future.join();
+            }
+            return rows;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SystemException(cause);
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    private static List<Object> collectKeys(Collection<?> entityList) {
+        Object sample = entityList.iterator().next();
+        TableInfo tableInfo = sample == null ? null : TableInfoHelper.getTableInfo(sample.getClass());
+        if (tableInfo == null || !tableInfo.havePK()) {
+            return List.of();
+        }
+        String keyProperty = tableInfo.getKeyProperty();
+        List<Object> keys = new ArrayList<>(entityList.size());
+        for (Object entity : entityList) {
+            keys.add(tableInfo.getPropertyValue(entity, keyProperty));
+        }
+        return keys;
+    }
+}
@@ -16,11 +16,18 @@
 package top.sephy.infra.mybatis.plus;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
@@ -74,16 +81,156 @@ public interface CustomBaseMapper<T> extends BaseMapper<T> {
 
     int batchInsertAllColumn(@Param("entityList") Collection<T> entityList);
 
+    /**
+     * 分批插入, 每批调用一次 {@link #batchInsertAllColumn(Collection)}
+     *
+     * @param entityList 实体
+     * @param options 分批参数, 按行数或字节数切分, 可并发执行
+     * @return 总行数和主键
+     */
+    default BatchInsertResult batchInsertAllColumn(Collection<T> entityList, BatchInsertOptions options) {
+        return BatchInsertUtils.insert(entityList, options, this::batchInsertAllColumn);
+    }
+
+    /**
+     * 分批插入, 每批调用一次 {@link #insertBatchSomeColumn(Collection)}, 自增主键会回填到实体
+     *
+     * @param entityList 实体
+     * @param options 分批参数, 按行数或字节数切分, 可并发执行
+     * @return 总行数和主键
+     */
+    default BatchInsertResult insertBatchSomeColumn(Collection<T> entityList, BatchInsertOptions options) {
+        return BatchInsertUtils.insert(entityList, options, this::insertBatchSomeColumn);
+    }
+
     int alwaysUpdateSomeColumnById(@Param(Constants.ENTITY) T entity);
 
     int batchUpdateById(@Param("entityList") Collection<T> entityList);
 
     /**
-     * 查询全表
+     * 单条 UPDATE ... CASE WHEN 批量更新, 只更新非空字段, 不分批
+     *
+     * @param entityList 实体
+     * @return 影响行数
+     * @see top.sephy.infra.mybatis.plus.injector.CaseWhenUpdateById
+     */
+    int caseWhenUpdateById(@Param("entityList") Collection<T> entityList);
+
+    /**
+     * 按默认批大小分批执行 {@link #caseWhenUpdateById(Collection)}
+     *
+     * @param entityList 实体
+     * @return 影响行数
+     */
+    default int batchUpdateByIdCaseWhen(Collection<T> entityList) {
+        return batchUpdateByIdCaseWhen(entityList, BatchInsertOptions.DEFAULT_MAX_ROWS);
+    }
+
+    /**
+     * 分批执行 {@link #caseWhenUpdateById(Collection)}, 每批一条语句
+     *
+     * @param entityList 实体
+     * @param chunkSize 每批实体数
+     * @return 影响行数
+     */
+    default int batchUpdateByIdCaseWhen(Collection<T> entityList, int chunkSize) {
+        if (entityList.isEmpty()) {
+            return 0;
+        }
+        int size = Math.max(1, chunkSize);
+        if (entityList.size() <= size) {
+            return caseWhenUpdateById(entityList);
+        }
+        int rows = 0;
+        List<T> chunk = new ArrayList<>(size);
+        for (T entity : entityList) {
+            chunk.add(entity);
+            if (chunk.size() == size) {
+                rows += caseWhenUpdateById(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rows += caseWhenUpdateById(chunk);
+        }
+        return rows;
+    }
+
+    /**
+     * 查询全表, 最多返回 10000 行
      * 
      * @return
+     * @deprecated 结果会被截断且全部加载到内存, 大表请使用 {@link #scanAll(int, Consumer)} 或
+     *             {@link #scanByKeyset(Class, Consumer, int, Consumer)}
      */
+    @Deprecated
     default List<T> selectAll() {
         return PageHelper.offsetPage(0, 10000).doSelectPage(() -> this.selectList(Wrappers.emptyWrapper()));
     }
+
+    /**
+     * 流式查询, 需要在事务中消费并关闭游标
+     *
+     * @param queryWrapper 查询条件
+     * @return 游标
+     * @see top.sephy.infra.mybatis.plus.injector.SelectCursor
+     */
+    Cursor<T> selectCursor(@Param(Constants.WRAPPER) Wrapper<T> queryWrapper);
+
+    /**
+     * 流式查询, 逐行回调, 不需要事务
+     *
+     * @param queryWrapper 查询条件
+     * @param handler 结果处理
+     */
+    void selectCursor(@Param(Constants.WRAPPER) Wrapper<T> queryWrapper, ResultHandler<T> handler);
+
+    /**
+     * 流式扫描全表, 按批回调
+     *
+     * @param batchSize 批大小
+     * @param consumer 处理一批数据
+     * @return 总行数
+     */
+    default long scanAll(int batchSize, Consumer<List<T>> consumer) {
+        return scan(Wrappers.emptyWrapper(), batchSize, consumer);
+    }
+
+    /**
+     * 按条件流式扫描, 按批回调
+     *
+     * @param queryWrapper 查询条件
+     * @param batchSize 批大小
+     * @param consumer 处理一批数据
+     * @return 总行数
+     */
+    default long scan(Wrapper<T> queryWrapper, int batchSize, Consumer<List<T>> consumer) {
+        return ScanUtils.scan(handler -> this.selectCursor(queryWrapper, handler), batchSize, consumer);
+    }
+
+    /**
+     * 按条件流式扫描, 返回按批的 Stream, 需要在事务中消费并关闭
+     *
+     * @param queryWrapper 查询条件
+     * @param batchSize 批大小
+     * @return 按批的 Stream
+     */
+    default Stream<List<T>> streamBatches(Wrapper<T> queryWrapper, int batchSize) {
+        return ScanUtils.batches(this.selectCursor(queryWrapper), batchSize);
+    }
+
+    /**
+     * 按主键分段扫描, 用于不支持流式读取的驱动
+     *
+     * @param entityClass 实体类型
+     * @param condition 查询条件, 可以为 null
+     * @param batchSize 批大小
+     * @param consumer 处理一批数据
+     * @return 总行数
+     * @see ScanUtils#scanByKeyset(CustomBaseMapper, Class, Consumer, int, Consumer)
+     */
+    default long scanByKeyset(Class<T> entityClass, Consumer<QueryWrapper<T>> condition, int batchSize,
+        Consumer<List<T>> consumer) {
+        return ScanUtils.scanByKeyset(this, entityClass, condition, batchSize, consumer);
+    }
 }
@@ -26,7 +26,9 @@ import com.baomidou.mybatisplus.extension.injector.methods.Upsert;
 
 import top.sephy.infra.mybatis.plus.injector.BatchInsertAllColumn;
 import top.sephy.infra.mybatis.plus.injector.BatchUpdateById;
+import top.sephy.infra.mybatis.plus.injector.CaseWhenUpdateById;
 import top.sephy.infra.mybatis.plus.injector.InsertAllColumn;
+import top.sephy.infra.mybatis.plus.injector.SelectCursor;
 
 /**
  * 添加Sql注入方法,支持批量插入
@@ -36,6 +38,19 @@ import top.sephy.infra.mybatis.plus.injector.InsertAllColumn;
  */
 public class CustomerSqlInjector extends DefaultSqlInjector {
 
+    private final int cursorFetchSize;
+
+    public CustomerSqlInjector() {
+        this(SelectCursor.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * @param cursorFetchSize selectCursor 的 fetchSize, MySQL 流式读取使用 {@link SelectCursor#MYSQL_STREAMING_FETCH_SIZE}
+     */
+    public CustomerSqlInjector(int cursorFetchSize) {
+        this.cursorFetchSize = cursorFetchSize;
+    }
+
     @Override
     public List<AbstractMethod> getMethodList(Class<?> mapperClass, TableInfo tableInfo) {
         List<AbstractMethod> methodList = super.getMethodList(mapperClass, tableInfo);
@@ -44,6 +59,8 @@ public class CustomerSqlInjector extends DefaultSqlInjector {
         methodList.add(new BatchInsertAllColumn());
         methodList.add(new InsertBatchSomeColumn());
         methodList.add(new BatchUpdateById());
+        methodList.add(new CaseWhenUpdateById());
+        methodList.add(new SelectCursor(cursorFetchSize));
         // methodList.add(new UpdateAllColumnById());
         methodList.add(new AlwaysUpdateSomeColumnById());
         return methodList;
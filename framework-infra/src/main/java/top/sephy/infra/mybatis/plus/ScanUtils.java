@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.github.pagehelper.PageHelper;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+
+import lombok.NonNull;
+import top.sephy.infra.exception.SystemException;
+
+/**
+ * 大表扫描, 结果按批交给调用方处理, 内存占用只与批大小有关
+ */
+public abstract class ScanUtils {
+
+    /**
+     * 通过 {@link ResultHandler} 逐行读取, 攒满一批回调一次, 查询期间 SqlSession 一直打开, 不需要事务
+     *
+     * @param query 执行查询的方法, 如 {@code h -> mapper.selectCursor(wrapper, h)}
+     * @param batchSize 批大小
+     * @param consumer 处理一批数据, 每批都是新的 List, 可以保留
+     * @return 总行数
+     * @param <T> 实体类型
+     */
+    public static <T> long scan(@NonNull Consumer<ResultHandler<T>> query, int batchSize,
+        @NonNull Consumer<List<T>> consumer) {
+        BatchingResultHandler<T> handler = new BatchingResultHandler<>(checkBatchSize(batchSize), consumer);
+        query.accept(handler);
+        handler.flush();
+        return handler.total;
+    }
+
+    /**
+     * 把 {@link Cursor} 包装为按批的 Stream, 关闭 Stream 时关闭 Cursor.
+     * <p>
+     * Cursor 依赖打开的 SqlSession, 在 Spring 中必须在事务内消费, 且调用方负责关闭 Stream (try-with-resources)。
+     *
+     * @param cursor 游标
+     * @param batchSize 批大小
+     * @return 按批的 Stream
+     * @param <T> 实体类型
+     */
+    public static <T> Stream<List<T>> batches(@NonNull Cursor<T> cursor, int batchSize) {
+        return Streams.stream(Iterators.partition(cursor.iterator(), checkBatchSize(batchSize))).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                throw new SystemException("关闭游标失败", e);
+            }
+        });
+    }
+
+    /**
+     * 按主键分段扫描, 每批执行一次 {@code WHERE ... AND id > ? ORDER BY id} 的分页查询, 适用于不支持流式读取的驱动.
+     * <p>
+     * 每批都是独立的查询, 不需要事务, 也不会长时间占用连接; 扫描期间新插入的数据如果主键更大也会被读到。
+     *
+     * @param mapper mapper
+     * @param entityClass 实体类型, 用于获取主键
+     * @param condition 查询条件, 每批都会以 {@code AND (...)} 嵌套在新的 QueryWrapper 中, 可以使用 OR, 不要在其中排序
+     * @param batchSize 批大小
+     * @param consumer 处理一批数据
+     * @return 总行数
+     * @param <T> 实体类型
+     */
+    public static <T> long scanByKeyset(@NonNull CustomBaseMapper<T> mapper, @NonNull Class<T> entityClass,
+        Consumer<QueryWrapper<T>> condition, int batchSize, @NonNull Consumer<List<T>> consumer) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if (tableInfo == null || !tableInfo.havePK()) {
+            throw new SystemException("按主键扫描需要实体声明主键: " + entityClass.getName());
+        }
+        String keyColumn = tableInfo.getKeyColumn();
+        int size = checkBatchSize(batchSize);
+        long total = 0;
+        Object lastKey = null;
+        while (true) {
+            QueryWrapper<T> wrapper = new QueryWrapper<>();
+            if (condition != null) {
+                // 嵌套后条件中的 OR 不会越过主键范围
+                wrapper.and(condition);
+            }
+            wrapper.gt(lastKey != null, keyColumn, lastKey).orderByAsc(keyColumn);
+            List<T> list = PageHelper.offsetPage(0, size, false).doSelectPage(() -> mapper.selectList(wrapper));
+            if (list.isEmpty()) {
+                break;
+            }
+            consumer.accept(list);
+            total += list.size();
+            if (list.size() < size) {
+                break;
+            }
+            lastKey = tableInfo.getPropertyValue(list.get(list.size() - 1), tableInfo.getKeyProperty());
+        }
+        return total;
+    }
+
+    private static int checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        return batchSize;
+    }
+
+    static final class BatchingResultHandler<T> implements ResultHandler<T> {
+
+        private final int batchSize;
+
+        private final Consumer<List<T>> consumer;
+
+        private List<T> buffer;
+
+        private long total;
+
+        BatchingResultHandler(int batchSize, Consumer<List<T>> consumer) {
+            this.batchSize = batchSize;
+            this.consumer = consumer;
+            this.buffer = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends T> resultContext) {
+            buffer.add(resultContext.getResultObject());
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<T> batch = buffer;
+            buffer = new ArrayList<>(batchSize);
+            total += batch.size();
+            consumer.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.injector;
+
+import java.io.Serial;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+
+/**
+ * 批量更新, 默认只更新非空字段, 所有实体在一条 UPDATE 中完成:
+ *
+ * <pre>
+ * UPDATE t SET
+ *   col = CASE id WHEN NULL THEN col WHEN #{et.id} THEN #{et.col} ... ELSE col END,
+ *   version = version + 1
+ * WHERE (id, version) IN ((#{et.id}, #{et.version}), ...) AND deleted = 0
+ * </pre>
+ *
+ * 字段的更新策略 ({@code updateStrategy}, {@code update}, 自动填充) 与 {@code updateById} 一致, {@code NEVER} 的字段不会出现在 SET 中;
+ * 与 {@link BatchUpdateById} 相比不需要 allowMultiQueries, 数据库只执行一条语句。有 {@code @Version} 字段时实体必须带上版本号,
+ * 版本号不匹配的行不会被更新, 可以通过返回的影响行数判断; 逻辑删除的行和主键为 null 的实体不会被更新。单条语句的大小与实体数量成正比,
+ * 大批量请使用 {@code CustomBaseMapper#batchUpdateByIdCaseWhen} 自动分批。
+ */
+public class CaseWhenUpdateById extends AbstractMethod {
+
+    @Serial
+    private static final long serialVersionUID = -2877465186123620357L;
+
+    public static final String METHOD = "caseWhenUpdateById";
+
+    private static final String COLLECTION = "entityList";
+
+    private static final String ITEM = "et";
+
+    public CaseWhenUpdateById() {
+        this(METHOD);
+    }
+
+    public CaseWhenUpdateById(String name) {
+        super(name);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String keyColumn = tableInfo.getKeyColumn();
+        String keyParam = SqlScriptUtils.safeParam(ITEM + DOT + tableInfo.getKeyProperty());
+        String keyNotNull = ITEM + DOT + tableInfo.getKeyProperty() + " != null";
+        TableFieldInfo versionField = tableInfo.isWithVersion() ? tableInfo.getVersionFieldInfo() : null;
+
+        StringBuilder set = new StringBuilder();
+        for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+            if (fieldInfo.isVersion() || fieldInfo.isLogicDelete()
+                || (!fieldInfo.isWithUpdateFill() && fieldInfo.getUpdateStrategy() == FieldStrategy.NEVER)) {
+                continue;
+            }
+            String column = fieldInfo.getColumn();
+            String value = StringUtils.isNotBlank(fieldInfo.getUpdate()) ? String.format(fieldInfo.getUpdate(), column)
+                : SqlScriptUtils.safeParam(ITEM + DOT + fieldInfo.getEl());
+            String valueTest = valueTest(fieldInfo);
+            String when = SqlScriptUtils.convertIf("WHEN " + keyParam + " THEN " + value,
+                valueTest == null ? keyNotNull : valueTest + " and " + keyNotNull, false);
+            // WHEN NULL 永远不会命中, 保证所有实体的该字段都为 null 时 CASE 语法仍然合法
+            set.append(column).append(" = CASE ").append(keyColumn).append(" WHEN NULL THEN ").append(column)
+                .append(NEWLINE).append(SqlScriptUtils.convertForeach(when, COLLECTION, null, ITEM, null))
+                .append(NEWLINE).append("ELSE ").append(column).append(" END,").append(NEWLINE);
+        }
+        if (versionField != null) {
+            set.append(versionField.getColumn()).append(" = ").append(versionField.getColumn()).append(" + 1,")
+                .append(NEWLINE);
+        }
+
+        String where;
+        if (versionField != null) {
+            String tuple = LEFT_BRACKET + keyParam + COMMA + SqlScriptUtils.safeParam(ITEM + DOT
+                + versionField.getProperty()) + RIGHT_BRACKET;
+            where = LEFT_BRACKET + keyColumn + COMMA + versionField.getColumn() + RIGHT_BRACKET + " IN ("
+                + SqlScriptUtils.convertForeach(tuple, COLLECTION, null, ITEM, COMMA) + RIGHT_BRACKET;
+        } else {
+            where = keyColumn + " IN (" + SqlScriptUtils.convertForeach(keyParam, COLLECTION, null, ITEM, COMMA)
+                + RIGHT_BRACKET;
+        }
+
+        String sql = "<script>" + NEWLINE + "UPDATE " + tableInfo.getTableName() + NEWLINE
+            + SqlScriptUtils.convertTrim(set.toString(), "SET", null, null, COMMA) + NEWLINE + "WHERE " + where
+            + tableInfo.getLogicDeleteSql(true, true) + NEWLINE + "</script>";
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        return addUpdateMappedStatement(mapperClass, modelClass, methodName, sqlSource);
+    }
+
+    /**
+     * 与 {@link TableFieldInfo#getSqlSet(boolean, String)} 相同的更新策略
+     *
+     * @return 字段值的判断条件, 为 null 时总是更新
+     */
+    private static String valueTest(TableFieldInfo fieldInfo) {
+        if (fieldInfo.isWithUpdateFill()) {
+            return null;
+        }
+        String property = ITEM + DOT + fieldInfo.getProperty();
+        return switch (fieldInfo.getUpdateStrategy()) {
+            case ALWAYS -> null;
+            case NOT_EMPTY -> fieldInfo.isCharSequence() ? String.format("%s != null and %s != ''", property, property)
+                : property + " != null";
+            default -> property + " != null";
+        };
+    }
+}
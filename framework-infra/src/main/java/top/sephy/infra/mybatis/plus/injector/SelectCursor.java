@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.injector;
+
+import java.io.Serial;
+
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+
+import com.baomidou.mybatisplus.core.injector.methods.SelectList;
+
+/**
+ * 与 {@link SelectList} 相同的 SQL, 但声明为 FORWARD_ONLY 并带上 fetchSize, 配合 {@link org.apache.ibatis.cursor.Cursor} 或
+ * {@link org.apache.ibatis.session.ResultHandler} 逐行读取, 不会把整个结果集放进内存, 也不走二级缓存。
+ * <p>
+ * 默认 fetchSize 为 {@link #DEFAULT_FETCH_SIZE}, 各数据库驱动都接受; MySQL 未开启 useCursorFetch 时需要传入
+ * {@link #MYSQL_STREAMING_FETCH_SIZE} 才会流式读取, 其他驱动不接受负数。
+ */
+public class SelectCursor extends SelectList {
+
+    @Serial
+    private static final long serialVersionUID = 4301650827744925191L;
+
+    public static final String METHOD = "selectCursor";
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    public static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final int fetchSize;
+
+    public SelectCursor() {
+        this(METHOD, DEFAULT_FETCH_SIZE);
+    }
+
+    public SelectCursor(int fetchSize) {
+        this(METHOD, fetchSize);
+    }
+
+    public SelectCursor(String name, int fetchSize) {
+        super(name);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected MappedStatement addMappedStatement(Class<?> mapperClass, String id, SqlSource sqlSource,
+        SqlCommandType sqlCommandType, Class<?> parameterType, String resultMap, Class<?> resultType,
+        KeyGenerator keyGenerator, String keyProperty, String keyColumn) {
+        String statementName = mapperClass.getName() + DOT + id;
+        if (configuration.hasStatement(statementName, false)) {
+            return null;
+        }
+        return builderAssistant.addMappedStatement(id, sqlSource, StatementType.PREPARED, sqlCommandType, fetchSize,
+            null, null, parameterType, resultMap, resultType, ResultSetType.FORWARD_ONLY, false, false, false,
+            keyGenerator, keyProperty, keyColumn, configuration.getDatabaseId(), languageDriver);
+    }
+}
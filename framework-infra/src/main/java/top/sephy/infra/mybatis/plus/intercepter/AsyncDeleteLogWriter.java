@@ -0,0 +1,355 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.SmartLifecycle;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import top.sephy.infra.thread.NamedThreadFactory;
+
+/**
+ * 删除日志的后台批量写入
+ * <p>
+ * 删除记录先进入有界队列, 由后台线程合并为多行 INSERT 写入, 写入使用独立的连接, 不占用业务事务。队列满时按
+ * {@link OverflowPolicy} 处理; 停止时会先写完队列中剩余的记录。
+ *
+ * <pre>
+ * &#64;Bean
+ * public AsyncDeleteLogWriter asyncDeleteLogWriter(DataSource dataSource) {
+ *     return new AsyncDeleteLogWriter(dataSource);
+ * }
+ *
+ * deleteLogInterceptor.setAsyncArchive(DeleteLogDurability.AFTER_COMMIT, asyncDeleteLogWriter);
+ * </pre>
+ */
+@Slf4j
+public class AsyncDeleteLogWriter implements SmartLifecycle {
+
+    /**
+     * 队列满时的处理方式
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 阻塞调用方直到队列有空位
+         */
+        BLOCK,
+
+        /**
+         * 等待 offerTimeout 后仍然放不下, 由调用方线程直接写入
+         */
+        CALLER_RUNS,
+
+        /**
+         * 等待 offerTimeout 后仍然放不下, 丢弃并记录日志
+         */
+        DISCARD
+    }
+
+    private final DataSource dataSource;
+
+    private final BlockingQueue<DeleteLogRecord> queue;
+
+    @Setter
+    private int batchSize = 200;
+
+    @Setter
+    @NonNull
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    @Setter
+    @NonNull
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    @Setter
+    @NonNull
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    @Setter
+    @NonNull
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    private volatile String insertPrefix;
+
+    private volatile String valuesPlaceholder;
+
+    private volatile int columnCount;
+
+    private volatile DeleteLogMetrics metrics = DeleteLogMetrics.NOOP;
+
+    private volatile boolean running = false;
+
+    /**
+     * 提交时持有读锁, 停止时持有写锁, 保证 running 为 true 期间入队的记录一定会被后台线程写出
+     */
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    private Thread worker;
+
+    public AsyncDeleteLogWriter(DataSource dataSource) {
+        this(dataSource, 10000);
+    }
+
+    public AsyncDeleteLogWriter(@NonNull DataSource dataSource, int queueCapacity) {
+        this.dataSource = dataSource;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 设置写入的表和列, 由 {@link DeleteLogInterceptor} 调用, 列顺序与 {@link DeleteLogRecord} 一致
+     */
+    void setTarget(String tableName, List<String> columns) {
+        StringBuilder placeholder = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            placeholder.append(i == 0 ? "?" : ", ?");
+        }
+        this.valuesPlaceholder = placeholder.append(')').toString();
+        this.columnCount = columns.size();
+        this.insertPrefix = "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES ";
+    }
+
+    /**
+     * 设置丢弃记录的统计, 由 {@link DeleteLogInterceptor} 调用
+     */
+    void setMetrics(DeleteLogMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 提交待写入的记录
+     *
+     * @param records 删除记录
+     */
+    public void submit(@NonNull List<DeleteLogRecord> records) {
+        List<DeleteLogRecord> rest;
+        Lock lock = runningLock.readLock();
+        lock.lock();
+        try {
+            if (!running) {
+                rest = null;
+            } else {
+                rest = enqueueAll(records);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (rest == null) {
+            // 未启动或已停止时同步写入, 避免丢失
+            write(records);
+            return;
+        }
+        if (rest.isEmpty()) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            log.warn("删除日志队列已满, 由调用方写入 {} 条记录", rest.size());
+            write(rest);
+        } else {
+            log.error("删除日志队列已满, 丢弃 {} 条记录, table={}", rest.size(), rest.get(0).tableName());
+            metrics.recordDropped(rest.get(0).tableName(), rest.size());
+        }
+    }
+
+    /**
+     * @return 未能入队的记录
+     */
+    private List<DeleteLogRecord> enqueueAll(List<DeleteLogRecord> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (!enqueue(records.get(i))) {
+                return records.subList(i, records.size());
+            }
+        }
+        return List.of();
+    }
+
+    private boolean enqueue(DeleteLogRecord record) {
+        try {
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+                queue.put(record);
+                return true;
+            }
+            return queue.offer(record, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runLoop() {
+        List<DeleteLogRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                DeleteLogRecord first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 继续把剩余的记录写完
+                log.warn("删除日志后台写入线程被中断");
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<DeleteLogRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        // 已经提交的记录数, 失败时其余的记录都会丢弃
+        int written = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            try {
+                for (int from = 0; from < records.size(); from += batchSize) {
+                    List<DeleteLogRecord> chunk = records.subList(from, Math.min(from + batchSize, records.size()));
+                    try (PreparedStatement statement = connection.prepareStatement(insertSql(chunk.size()))) {
+                        int index = 1;
+                        for (DeleteLogRecord record : chunk) {
+                            statement.setString(index++, record.tableName());
+                            statement.setObject(index++, record.dataId());
+                            statement.setString(index++, record.content());
+                            if (columnCount > 3) {
+                                statement.setObject(index++, record.operator());
+                            }
+                        }
+                        statement.executeUpdate();
+                    }
+                    if (autoCommit) {
+                        written += chunk.size();
+                    }
+                }
+                if (!autoCommit) {
+                    connection.commit();
+                    written = records.size();
+                }
+            } catch (SQLException e) {
+                // 不回滚的话未提交的分批会随连接回到连接池
+                if (!autoCommit) {
+                    rollback(connection, e);
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            int dropped = records.size() - written;
+            log.error("写入删除日志失败, 丢弃 {} 条记录, 已写入 {} 条, table={}", dropped, written,
+                records.get(0).tableName(), e);
+            metrics.recordDropped(records.get(0).tableName(), dropped);
+        }
+    }
+
+    private static void rollback(Connection connection, SQLException cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sb = new StringBuilder(insertPrefix.length() + rows * (valuesPlaceholder.length() + 2))
+            .append(insertPrefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(valuesPlaceholder);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 队列中等待写入的记录数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (insertPrefix == null) {
+            throw new IllegalStateException("AsyncDeleteLogWriter 未绑定到 DeleteLogInterceptor");
+        }
+        worker = new NamedThreadFactory("delete-log-writer-", true).newThread(this::runLoop);
+        Lock lock = runningLock.writeLock();
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        worker.start();
+        log.info("删除日志后台写入已启动");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        // 等待正在入队的提交完成, 之后的提交都会同步写入, 队列不会再增加
+        Lock lock = runningLock.writeLock();
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        // 后台线程最多等待 flushInterval 就会发现已停止, 写完队列中剩余的记录后退出
+        try {
+            worker.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("删除日志后台写入未能在 {} 内完成, 剩余 {} 条记录", shutdownTimeout, queue.size());
+        } else {
+            List<DeleteLogRecord> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            write(rest);
+            log.info("删除日志后台写入已停止");
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+/**
+ * 删除日志的写入方式
+ */
+public enum DeleteLogDurability {
+
+    /**
+     * 在删除前以 INSERT ... SELECT 同步写入, 与删除在同一个事务中
+     */
+    SYNC,
+
+    /**
+     * 删除前只查询待删除的数据, 事务提交后交给后台批量写入; 事务回滚时不写入, 没有事务时立即提交给后台
+     */
+    AFTER_COMMIT,
+
+    /**
+     * 删除前只查询待删除的数据, 立即交给后台批量写入, 不关心事务是否提交
+     */
+    ASYNC
+}
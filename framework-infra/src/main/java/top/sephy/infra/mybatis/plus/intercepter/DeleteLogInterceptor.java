@@ -22,15 +22,17 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
@@ -38,12 +40,16 @@ import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
 import com.baomidou.mybatisplus.extension.parser.JsqlParserGlobal;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 import lombok.NonNull;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.JdbcParameter;
 import net.sf.jsqlparser.expression.JsonAggregateOnNullType;
 import net.sf.jsqlparser.expression.JsonFunction;
 import net.sf.jsqlparser.expression.JsonFunctionType;
@@ -57,7 +63,7 @@ import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.delete.Delete;
 import net.sf.jsqlparser.statement.insert.Insert;
 import net.sf.jsqlparser.statement.select.AllColumns;
-import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Limit;
 import net.sf.jsqlparser.statement.select.PlainSelect;
 import net.sf.jsqlparser.statement.select.Select;
 import net.sf.jsqlparser.statement.select.SelectItem;
@@ -72,13 +78,20 @@ import top.sephy.infra.mybatis.interceptor.CurrentUserExtractor;
 @Slf4j
 public class DeleteLogInterceptor implements InnerInterceptor {
 
-    @Setter
+    public static final long DEFAULT_PLAN_CACHE_SIZE = 1024;
+
+    /**
+     * 操作人的值每次执行时才能确定, 在归档语句中以参数绑定, 此为绑定时使用的参数名
+     */
+    private static final String OPERATOR_PARAM = "__delete_log_operator__";
+
     private int defaultBatchUpdateLimit = 1000;
 
-    @Setter
     private boolean batchUpdateLimitationOpened = false;
 
-    @Setter
+    /**
+     * 为 true 时在归档前单独执行一次 COUNT 检查行数; 否则在归档语句上加 LIMIT 上限+1, 行数检查不需要额外的查询
+     */
     private Boolean batchUpdateCheckCountOpened;
 
     private final Map<String, Integer> batchUpdateLimitMap = new ConcurrentHashMap<>();// 表名->批量更新上限
@@ -99,11 +112,16 @@ public class DeleteLogInterceptor implements InnerInterceptor {
 
     private Map<String, Integer> ignoreTables = new ConcurrentHashMap<>();
 
-    private Map<String, PlainSelect> selectCache = new ConcurrentHashMap<>();
+    /**
+     * 原始 DELETE 语句 -> 归档用的 SQL, 命中时不再经过 JSqlParser
+     */
+    private volatile Cache<String, DeleteLogPlan> planCache = newPlanCache(DEFAULT_PLAN_CACHE_SIZE);
+
+    private DeleteLogMetrics deleteLogMetrics = DeleteLogMetrics.NOOP;
 
-    private Map<String, PlainSelect> selectCountCache = new ConcurrentHashMap<>();
+    private DeleteLogDurability durability = DeleteLogDurability.SYNC;
 
-    private Map<String, Insert> insertCache = new ConcurrentHashMap<>();
+    private AsyncDeleteLogWriter asyncWriter;
 
     public DeleteLogInterceptor() {
         this("delete_log", "table_name", "data_id", "content");
@@ -121,14 +139,83 @@ public class DeleteLogInterceptor implements InnerInterceptor {
         this.colNameOperator = colNameOperator;
         this.currentUserExtractor = currentUserExtractor;
         this.saveOperator = true;
+        planCache.invalidateAll();
+        bindAsyncWriter();
+    }
+
+    public void setDeleteLogMetrics(@NonNull DeleteLogMetrics deleteLogMetrics) {
+        this.deleteLogMetrics = deleteLogMetrics;
+        bindAsyncWriter();
+    }
+
+    /**
+     * 设置删除日志的写入方式
+     *
+     * @param durability 写入方式
+     * @param asyncWriter 后台写入器, {@link DeleteLogDurability#SYNC} 时可以为 null
+     */
+    public void setAsyncArchive(@NonNull DeleteLogDurability durability, AsyncDeleteLogWriter asyncWriter) {
+        if (durability != DeleteLogDurability.SYNC && asyncWriter == null) {
+            throw new IllegalArgumentException("asyncWriter is required for durability " + durability);
+        }
+        this.asyncWriter = asyncWriter;
+        this.durability = durability;
+        bindAsyncWriter();
+    }
+
+    private void bindAsyncWriter() {
+        if (asyncWriter == null) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(List.of(colNameTable, colNameDataId, colNameContent));
+        if (saveOperator) {
+            columns.add(colNameOperator);
+        }
+        asyncWriter.setTarget(tableName, columns);
+        asyncWriter.setMetrics(deleteLogMetrics);
     }
 
     public void addIgnoreTable(String tableName) {
         ignoreTables.put(tableName.toLowerCase(), 1);
+        planCache.invalidateAll();
+    }
+
+    /**
+     * 设置 SQL 缓存的最大条数, 已缓存的内容会被清空
+     *
+     * @param size 最大条数
+     */
+    public void setPlanCacheSize(long size) {
+        this.planCache = newPlanCache(size);
+    }
+
+    /**
+     * SQL 缓存的命中统计
+     *
+     * @return 命中统计
+     */
+    public CacheStats getPlanCacheStats() {
+        return planCache.stats();
     }
 
     public void setBatchUpdateLimitMap(Map<String, Integer> batchUpdateLimitMap) {
         this.batchUpdateLimitMap.putAll(batchUpdateLimitMap);
+        planCache.invalidateAll();
+    }
+
+    public void setDefaultBatchUpdateLimit(int defaultBatchUpdateLimit) {
+        this.defaultBatchUpdateLimit = defaultBatchUpdateLimit;
+        planCache.invalidateAll();
+    }
+
+    public void setBatchUpdateCheckCountOpened(Boolean batchUpdateCheckCountOpened) {
+        this.batchUpdateCheckCountOpened = batchUpdateCheckCountOpened;
+        planCache.invalidateAll();
+    }
+
+    public void setBatchUpdateLimitationOpened(boolean batchUpdateLimitationOpened) {
+        this.batchUpdateLimitationOpened = batchUpdateLimitationOpened;
+        planCache.invalidateAll();
     }
 
     @Override
@@ -137,70 +224,99 @@ public class DeleteLogInterceptor implements InnerInterceptor {
         MappedStatement ms = mpSh.mappedStatement();
         final BoundSql boundSql = mpSh.boundSql();
         SqlCommandType sct = ms.getSqlCommandType();
-        batchUpdateCheckCountByTransactionIsolation(connection);
         if (sct == SqlCommandType.DELETE) {
             // 如果是使用 MBP 的邏輯刪除
             PluginUtils.MPBoundSql mpBs = mpSh.mPBoundSql();
-            long startTs = System.currentTimeMillis();
+            String sql = mpBs.sql();
+            long startTs = System.nanoTime();
             try {
-                Statement statement = JsqlParserGlobal.parse(mpBs.sql());
-                if (statement instanceof Delete delete) {
-                    String sqlTableName = StringUtils.replace(delete.getTable().getName(), "`", "");
-                    if (ignoreTables.containsKey(sqlTableName.toLowerCase())) {
-                        return;
-                    }
-                    processDelete((Delete)statement, ms, boundSql, connection);
+                DeleteLogPlan plan = getPlan(sql);
+                if (plan.skipped()) {
+                    return;
                 }
+                int rows = copyOriginalData(plan, ms, boundSql, connection);
+                long costThis = System.nanoTime() - startTs;
+                deleteLogMetrics.recordArchive(ms.getId(), plan.tableName(), rows, costThis);
             } catch (Exception e) {
                 if (e instanceof DataUpdateLimitationException) {
                     throw (DataUpdateLimitationException)e;
                 }
-                log.error("Unexpected error for mappedStatement={}, sql={}", ms.getId(), mpBs.sql(), e);
-                return;
+                log.error("Unexpected error for mappedStatement={}, sql={}", ms.getId(), sql, e);
             }
-            long costThis = System.currentTimeMillis() - startTs;
         }
     }
 
-    private void batchUpdateCheckCountByTransactionIsolation(Connection connection) {
-        try {
-            if (Objects.isNull(batchUpdateCheckCountOpened)) {
-                int isolationLevel = connection.getTransactionIsolation();
-                this.batchUpdateCheckCountOpened = Connection.TRANSACTION_REPEATABLE_READ == isolationLevel;
-            }
-        } catch (Exception e) {
-            log.error("get transaction isolation error: {}", e.getMessage(), e);
-            throw new SystemException(e);
+    public void processDelete(Delete deleteStmt, MappedStatement mappedStatement, BoundSql boundSql,
+        Connection connection) throws JSQLParserException {
+        DeleteLogPlan plan = getPlan(deleteStmt.toString());
+        if (!plan.skipped()) {
+            copyOriginalData(plan, mappedStatement, boundSql, connection);
         }
     }
 
-    public void processDelete(Delete deleteStmt, MappedStatement mappedStatement, BoundSql boundSql,
-        Connection connection) {
+    private DeleteLogPlan getPlan(String sql) throws JSQLParserException {
+        Cache<String, DeleteLogPlan> cache = this.planCache;
+        DeleteLogPlan plan = cache.getIfPresent(sql);
+        if (plan == null) {
+            // 并发时可能重复生成, 结果相同, 不加锁
+            plan = buildPlan(sql);
+            cache.put(sql, plan);
+        }
+        return plan;
+    }
+
+    private DeleteLogPlan buildPlan(String sql) throws JSQLParserException {
+        Statement statement = JsqlParserGlobal.parse(sql);
+        if (!(statement instanceof Delete deleteStmt)) {
+            return DeleteLogPlan.SKIP;
+        }
         Table table = deleteStmt.getTable();
+        String sqlTableName = StringUtils.replace(table.getName(), "`", "").toLowerCase();
+        if (ignoreTables.containsKey(sqlTableName)) {
+            return DeleteLogPlan.SKIP;
+        }
         TableInfo tableInfo = TableInfoHelper.getTableInfo(table.getName());
-        if (tableInfo != null) {
-            PlainSelect select = getPlainSelect(deleteStmt, tableInfo);
-            copyOriginalData(select, deleteStmt, mappedStatement, boundSql, connection);
+        if (tableInfo == null) {
+            return DeleteLogPlan.SKIP;
         }
+        String insertSql = generateInsertSelectSql(
+            withLimitProbe(getPlainSelect(deleteStmt, tableInfo, saveOperator), sqlTableName)).toString();
+        String captureSql = withLimitProbe(getPlainSelect(deleteStmt, tableInfo, false), sqlTableName).toString();
+        String countSql = getPlainSelectCount(deleteStmt).toString();
+        log.debug("delete log plan for sql: {}, insert sql: {}, select count sql: {}", sql, insertSql, countSql);
+        return new DeleteLogPlan(sqlTableName, insertSql, saveOperator, captureSql, countSql);
     }
 
-    private Insert generateInsertSelectSql(Select select) {
-        Insert statement = insertCache.computeIfAbsent(select.toString(), s -> {
-            Insert insert = new Insert();
-            List<Column> insertCols = new ArrayList<>();
-            insertCols.add(new Column(colNameTable));
-            insertCols.add(new Column(colNameDataId));
-            insertCols.add(new Column(colNameContent));
-            if (saveOperator) {
-                insertCols.add(new Column(colNameOperator));
+    /**
+     * 开启批量上限检查时, 归档语句最多取 上限+1 行, 取到的行数超过上限即说明超限, 不需要再单独 COUNT
+     * <p>
+     * DELETE 自带的 LIMIT 更小或者是参数时保留原样, 归档的行与删除的行保持一致, 参数下标也不会错位
+     */
+    private PlainSelect withLimitProbe(PlainSelect select, String sqlTableName) {
+        if (batchUpdateLimitationOpened && !Boolean.TRUE.equals(batchUpdateCheckCountOpened)) {
+            long probe = batchUpdateLimitMap.getOrDefault(sqlTableName, defaultBatchUpdateLimit) + 1L;
+            Limit deleteLimit = select.getLimit();
+            if (deleteLimit == null
+                || deleteLimit.getRowCount() instanceof LongValue rowCount && rowCount.getValue() > probe) {
+                select.setLimit(new Limit().withRowCount(new LongValue(probe)));
             }
-            insert.setColumns(new ExpressionList<>(insertCols));
-            insert.setTable(new Table(tableName));
-            insert.setSelect(select);
-            return insert;
-        });
-        log.debug("insert sql: {}", statement);
-        return statement;
+        }
+        return select;
+    }
+
+    private Insert generateInsertSelectSql(Select select) {
+        Insert insert = new Insert();
+        List<Column> insertCols = new ArrayList<>();
+        insertCols.add(new Column(colNameTable));
+        insertCols.add(new Column(colNameDataId));
+        insertCols.add(new Column(colNameContent));
+        if (saveOperator) {
+            insertCols.add(new Column(colNameOperator));
+        }
+        insert.setColumns(new ExpressionList<>(insertCols));
+        insert.setTable(new Table(tableName));
+        insert.setSelect(select);
+        return insert;
     }
 
     static String surroundedBySingleQuotes(String str) {
@@ -208,121 +324,171 @@ public class DeleteLogInterceptor implements InnerInterceptor {
     }
 
     private PlainSelect getPlainSelectCount(Delete deleteStmt) {
-        PlainSelect select = selectCountCache.computeIfAbsent(deleteStmt.toString(), s -> {
-            Table deleteTable = deleteStmt.getTable();
-            PlainSelect plainSelect = new PlainSelect();
-            plainSelect.setFromItem(deleteTable);
-
-            List<SelectItem<?>> selectItems = new ArrayList<>();
-
-            Function countFunction = new Function();
-            countFunction.setName("COUNT");
+        Table deleteTable = deleteStmt.getTable();
+        PlainSelect plainSelect = new PlainSelect();
+        plainSelect.setFromItem(deleteTable);
 
-            List<Expression> expressions = new ArrayList<>();
-            expressions.add(new AllColumns()); // 表示 * 的表达式
-            countFunction.setParameters(new ExpressionList(expressions));
+        List<SelectItem<?>> selectItems = new ArrayList<>();
 
-            selectItems.add(new SelectItem<>(countFunction));
+        Function countFunction = new Function();
+        countFunction.setName("COUNT");
 
-            plainSelect.setSelectItems(selectItems);
-            plainSelect.setWhere(deleteStmt.getWhere());
-            plainSelect.setJoins(deleteStmt.getJoins());
+        List<Expression> expressions = new ArrayList<>();
+        expressions.add(new AllColumns()); // 表示 * 的表达式
+        countFunction.setParameters(new ExpressionList(expressions));
 
-            return plainSelect;
-        });
+        selectItems.add(new SelectItem<>(countFunction));
 
-        log.debug("select count sql: {}", select);
+        plainSelect.setSelectItems(selectItems);
+        plainSelect.setWhere(deleteStmt.getWhere());
+        plainSelect.setJoins(deleteStmt.getJoins());
 
-        return select;
+        return plainSelect;
     }
 
-    private PlainSelect getPlainSelect(Delete deleteStmt, TableInfo tableInfo) {
-
-        PlainSelect select = selectCache.computeIfAbsent(deleteStmt.toString(), s -> {
-            Table deleteTable = deleteStmt.getTable();
-            PlainSelect plainSelect = new PlainSelect();
-            plainSelect.setFromItem(deleteTable);
+    private PlainSelect getPlainSelect(Delete deleteStmt, TableInfo tableInfo, boolean withOperator) {
+        Table deleteTable = deleteStmt.getTable();
+        PlainSelect plainSelect = new PlainSelect();
+        plainSelect.setFromItem(deleteTable);
 
-            List<SelectItem<?>> selectItems = new ArrayList<>();
-            // `table_name`
-            selectItems.add(new SelectItem<>(new StringValue(deleteTable.getName())));
+        List<SelectItem<?>> selectItems = new ArrayList<>();
+        // `table_name`
+        selectItems.add(new SelectItem<>(new StringValue(deleteTable.getName())));
 
-            Table selectItemTable = null;
-            if (deleteTable.getAlias() != null) {
-                selectItemTable = new Table(deleteTable.getAlias().getName());
-            }
-
-            // `data_id`
-            selectItems.add(new SelectItem<>(new Column(selectItemTable, tableInfo.getKeyColumn())));
-
-            JsonFunction jsonFunction = new JsonFunction();
-            jsonFunction.withType(JsonFunctionType.MYSQL_OBJECT);
-            jsonFunction.withOnNullType(JsonAggregateOnNullType.NULL);
-            jsonFunction.add(new JsonKeyValuePair(surroundedBySingleQuotes(tableInfo.getKeyColumn()),
-                new Column(selectItemTable, tableInfo.getKeyColumn()).toString(), false, false));
-            List<TableFieldInfo> fieldList = tableInfo.getFieldList();
-            for (TableFieldInfo tableFieldInfo : fieldList) {
-                jsonFunction.add(new JsonKeyValuePair(surroundedBySingleQuotes(tableFieldInfo.getColumn()),
-                    new Column(selectItemTable, tableFieldInfo.getColumn()).toString(), false, false));
-            }
+        Table selectItemTable = null;
+        if (deleteTable.getAlias() != null) {
+            selectItemTable = new Table(deleteTable.getAlias().getName());
+        }
 
-            // JSON_OBJECT
-            selectItems.add(new SelectItem<>(jsonFunction));
+        // `data_id`
+        selectItems.add(new SelectItem<>(new Column(selectItemTable, tableInfo.getKeyColumn())));
+
+        JsonFunction jsonFunction = new JsonFunction();
+        jsonFunction.withType(JsonFunctionType.MYSQL_OBJECT);
+        jsonFunction.withOnNullType(JsonAggregateOnNullType.NULL);
+        jsonFunction.add(new JsonKeyValuePair(surroundedBySingleQuotes(tableInfo.getKeyColumn()),
+            new Column(selectItemTable, tableInfo.getKeyColumn()).toString(), false, false));
+        List<TableFieldInfo> fieldList = tableInfo.getFieldList();
+        for (TableFieldInfo tableFieldInfo : fieldList) {
+            jsonFunction.add(new JsonKeyValuePair(surroundedBySingleQuotes(tableFieldInfo.getColumn()),
+                new Column(selectItemTable, tableFieldInfo.getColumn()).toString(), false, false));
+        }
 
-            if (this.colNameOperator != null && this.currentUserExtractor != null) {
-                Object currentUserId = this.currentUserExtractor.getCurrentUserId();
-                selectItems.add(new SelectItem<>(currentUserId instanceof String
-                    ? new StringValue(currentUserId.toString()) : new LongValue(currentUserId.toString())));
-            }
+        // JSON_OBJECT
+        selectItems.add(new SelectItem<>(jsonFunction));
 
-            plainSelect.setSelectItems(selectItems);
-            plainSelect.setWhere(deleteStmt.getWhere());
-            plainSelect.setJoins(deleteStmt.getJoins());
+        if (withOperator) {
+            // 操作人, 位于查询列中, 总是第一个参数, 执行时绑定当前用户
+            selectItems.add(new SelectItem<>(new JdbcParameter()));
+        }
 
-            return plainSelect;
-        });
+        plainSelect.setSelectItems(selectItems);
+        plainSelect.setWhere(deleteStmt.getWhere());
+        plainSelect.setJoins(deleteStmt.getJoins());
+        // 只归档实际会被删除的行
+        plainSelect.setOrderByElements(deleteStmt.getOrderByElements());
+        plainSelect.setLimit(deleteStmt.getLimit());
 
-        log.debug("select sql: {}", select);
+        return plainSelect;
+    }
 
-        return select;
+    /**
+     * 在原 DELETE 的参数前加上操作人参数, 其余参数及 foreach 等产生的附加参数保持不变
+     */
+    private BoundSql withOperatorParam(MappedStatement mappedStatement, BoundSql boundSql, String insertSql) {
+        List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings().size() + 1);
+        parameterMappings.add(
+            new ParameterMapping.Builder(mappedStatement.getConfiguration(), OPERATOR_PARAM, Object.class).build());
+        parameterMappings.addAll(boundSql.getParameterMappings());
+        BoundSql operatorBoundSql = new BoundSql(mappedStatement.getConfiguration(), insertSql, parameterMappings,
+            boundSql.getParameterObject());
+        boundSql.getAdditionalParameters().forEach(operatorBoundSql::setAdditionalParameter);
+        operatorBoundSql.setAdditionalParameter(OPERATOR_PARAM, currentUserExtractor.getCurrentUserId());
+        return operatorBoundSql;
     }
 
-    private int copyOriginalData(PlainSelect selectStmt, Delete deleteStmt, MappedStatement mappedStatement,
-        BoundSql boundSql, Connection connection) {
+    private int copyOriginalData(DeleteLogPlan plan, MappedStatement mappedStatement, BoundSql boundSql,
+        Connection connection) {
 
-        if (Boolean.TRUE.equals(batchUpdateCheckCountOpened)) {
-            checkCount(selectStmt, deleteStmt, mappedStatement, boundSql, connection);
+        if (batchUpdateLimitationOpened && Boolean.TRUE.equals(batchUpdateCheckCountOpened)) {
+            checkCount(plan, mappedStatement, boundSql, connection);
         }
-        String insertSelectSql = generateInsertSelectSql(selectStmt).toString();
+        if (durability != DeleteLogDurability.SYNC) {
+            return captureOriginalData(plan, mappedStatement, boundSql, connection);
+        }
+        String insertSelectSql = plan.insertSql();
+        BoundSql insertBoundSql =
+            plan.withOperator() ? withOperatorParam(mappedStatement, boundSql, insertSelectSql) : boundSql;
         try (PreparedStatement statement = connection.prepareStatement(insertSelectSql)) {
             DefaultParameterHandler parameterHandler =
-                new DefaultParameterHandler(mappedStatement, boundSql.getParameterObject(), boundSql);
+                new DefaultParameterHandler(mappedStatement, insertBoundSql.getParameterObject(), insertBoundSql);
             parameterHandler.setParameters(statement);
             int i = statement.executeUpdate();
-            if (Boolean.FALSE.equals(batchUpdateCheckCountOpened)) {
-                checkTableBatchLimitExceeded(selectStmt, i);
+            if (!Boolean.TRUE.equals(batchUpdateCheckCountOpened)) {
+                checkTableBatchLimitExceeded(plan.tableName(), i);
             }
             return i;
         } catch (Exception e) {
             if (e instanceof DataUpdateLimitationException) {
                 throw (DataUpdateLimitationException)e;
             }
-            log.error("try to get record tobe deleted for selectStmt={}", selectStmt, e);
+            log.error("try to get record tobe deleted for sql={}", insertSelectSql, e);
             throw new SystemException(e);
         }
     }
 
-    private void checkCount(PlainSelect selectStmt, Delete deleteStmt, MappedStatement mappedStatement,
-        BoundSql boundSql, Connection connection) {
-        PlainSelect selectCount = getPlainSelectCount(deleteStmt);
-        try (PreparedStatement statement = connection.prepareStatement(selectCount.toString())) {
+    /**
+     * 只查询待删除的数据, 交给后台写入
+     */
+    private int captureOriginalData(DeleteLogPlan plan, MappedStatement mappedStatement, BoundSql boundSql,
+        Connection connection) {
+        List<DeleteLogRecord> records = new ArrayList<>();
+        Object operator = saveOperator ? currentUserExtractor.getCurrentUserId() : null;
+        try (PreparedStatement statement = connection.prepareStatement(plan.captureSql())) {
+            DefaultParameterHandler parameterHandler =
+                new DefaultParameterHandler(mappedStatement, boundSql.getParameterObject(), boundSql);
+            parameterHandler.setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    records.add(new DeleteLogRecord(resultSet.getString(1), resultSet.getObject(2),
+                        resultSet.getString(3), operator));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("try to get record tobe deleted for sql={}", plan.captureSql(), e);
+            throw new SystemException(e);
+        }
+        if (!Boolean.TRUE.equals(batchUpdateCheckCountOpened)) {
+            checkTableBatchLimitExceeded(plan.tableName(), records.size());
+        }
+        if (records.isEmpty()) {
+            return 0;
+        }
+        AsyncDeleteLogWriter writer = this.asyncWriter;
+        if (durability == DeleteLogDurability.AFTER_COMMIT
+            && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writer.submit(records);
+                }
+            });
+        } else {
+            writer.submit(records);
+        }
+        return records.size();
+    }
+
+    private void checkCount(DeleteLogPlan plan, MappedStatement mappedStatement, BoundSql boundSql,
+        Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(plan.countSql())) {
             DefaultParameterHandler parameterHandler =
                 new DefaultParameterHandler(mappedStatement, boundSql.getParameterObject(), boundSql);
             parameterHandler.setParameters(statement);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 int count = resultSet.getInt(1);
-                checkTableBatchLimitExceeded(selectStmt, count);
+                checkTableBatchLimitExceeded(plan.tableName(), count);
             }
         } catch (SQLException e) {
             log.error("query count error: {}", e.getMessage(), e);
@@ -330,25 +496,38 @@ public class DeleteLogInterceptor implements InnerInterceptor {
         }
     }
 
-    private void checkTableBatchLimitExceeded(PlainSelect plainSelect, int count) {
+    private void checkTableBatchLimitExceeded(String tableName, int count) {
         if (!batchUpdateLimitationOpened) {
             return;
         }
-        final FromItem fromItem = plainSelect.getFromItem();
-        if (fromItem instanceof Table) {
-            Table fromTable = (Table)fromItem;
-            final String tableName = fromTable.getName().toLowerCase();
-            Integer limit = batchUpdateLimitMap.getOrDefault(tableName, defaultBatchUpdateLimit);
-            if (count > limit) {
-                String msg =
-                    String.format("batch update limit exceed for configured tableName=%s, limit=%d, " + "count=%d",
-                        tableName, limit, count);
-                throw new DataUpdateLimitationException(msg);
-            }
-        } else if (count > defaultBatchUpdateLimit) {
+        Integer limit = batchUpdateLimitMap.getOrDefault(tableName, defaultBatchUpdateLimit);
+        if (count > limit) {
             String msg = String.format("batch update limit exceed for configured tableName=%s, limit=%d, " + "count=%d",
-                tableName, defaultBatchUpdateLimit, count);
+                tableName, limit, count);
             throw new DataUpdateLimitationException(msg);
         }
     }
+
+    private static Cache<String, DeleteLogPlan> newPlanCache(long size) {
+        return CacheBuilder.newBuilder().maximumSize(size).recordStats().build();
+    }
+
+    /**
+     * 一条 DELETE 语句对应的归档 SQL
+     *
+     * @param tableName 被删除的表名, 小写
+     * @param insertSql 归档 INSERT ... SELECT 语句
+     * @param withOperator 归档语句的第一个参数是否为操作人
+     * @param captureSql 查询待删除数据的语句, 后台写入时使用
+     * @param countSql 统计待删除行数的语句
+     */
+    private record DeleteLogPlan(String tableName, String insertSql, boolean withOperator, String captureSql,
+        String countSql) {
+
+        static final DeleteLogPlan SKIP = new DeleteLogPlan(null, null, false, null, null);
+
+        boolean skipped() {
+            return insertSql == null;
+        }
+    }
 }
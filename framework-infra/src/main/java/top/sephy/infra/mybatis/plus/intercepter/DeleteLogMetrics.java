@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+/**
+ * 删除日志归档的耗时统计, 可对接监控系统
+ */
+@FunctionalInterface
+public interface DeleteLogMetrics {
+
+    DeleteLogMetrics NOOP = (mappedStatementId, tableName, rows, costNanos) -> {};
+
+    /**
+     * 一次 DELETE 归档完成
+     *
+     * @param mappedStatementId MappedStatement id
+     * @param tableName 被删除的表名
+     * @param rows 归档的行数
+     * @param costNanos 解析(未命中缓存时)、行数检查和归档的总耗时, 纳秒
+     */
+    void recordArchive(String mappedStatementId, String tableName, int rows, long costNanos);
+
+    /**
+     * 后台写入的删除日志被丢弃 (写入失败或队列已满)
+     *
+     * @param tableName 第一条记录的表名
+     * @param rows 丢弃的记录数
+     */
+    default void recordDropped(String tableName, int rows) {
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+/**
+ * 一条待归档的删除记录
+ *
+ * @param tableName 被删除数据所在的表
+ * @param dataId 主键
+ * @param content 删除前的数据, JSON
+ * @param operator 操作人, 不记录操作人时为 null
+ */
+public record DeleteLogRecord(String tableName, Object dataId, String content, Object operator) {
+}
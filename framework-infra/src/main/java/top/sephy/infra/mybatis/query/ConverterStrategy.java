@@ -15,10 +15,11 @@
  */
 package top.sephy.infra.mybatis.query;
 
-import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.Date;
 
 import org.apache.commons.lang3.StringUtils;
@@ -101,24 +102,8 @@ public enum ConverterStrategy implements Converter {
     },
     TO_DATETIME("TO_DATETIME") {
         @Override
-        public Object convert(Object val) {
-            if (val == null) {
-                return null;
-            }
-            LocalDateTime localDateTime = null;
-            if (val instanceof Date) {
-                localDateTime = DateTimeUtils.toLocalDateTime((Date)val);
-            } else if (val instanceof Long) {
-                localDateTime = DateTimeUtils.toLocalDateTime(new Date((Long)val));
-            } else if (val instanceof LocalDateTime) {
-                localDateTime = (LocalDateTime)val;
-            } else if (val instanceof LocalDate) {
-                localDateTime = ((LocalDate)val).atStartOfDay();
-            } else {
-                throw new IllegalArgumentException(
-                    "不支持 " + val.getClass().getCanonicalName() + " 到 java.lang.Date 的类型转换");
-            }
-            return localDateTime;
+        public Object convert(Object val, ZoneId zoneId) {
+            return toLocalDateTime(val, zoneId);
         }
     },
 
@@ -127,24 +112,9 @@ public enum ConverterStrategy implements Converter {
      */
     TO_DATE_END("TO_DATE_END") {
         @Override
-        public Object convert(Object val) {
-            if (val == null) {
-                return null;
-            }
-            LocalDateTime localDateTime = null;
-            if (val instanceof Date) {
-                localDateTime = DateTimeUtils.toLocalDateTime((Date)val);
-            } else if (val instanceof Long) {
-                localDateTime = DateTimeUtils.toLocalDateTime(new Date((Long)val));
-            } else if (val instanceof LocalDateTime) {
-                localDateTime = (LocalDateTime)val;
-            } else if (val instanceof LocalDate) {
-                localDateTime = ((LocalDate)val).atStartOfDay();
-            } else {
-                throw new IllegalArgumentException(
-                    "不支持 " + val.getClass().getCanonicalName() + " 到 java.lang.Date 的类型转换");
-            }
-            return localDateTime.with(LocalTime.MAX);
+        public Object convert(Object val, ZoneId zoneId) {
+            LocalDateTime localDateTime = toLocalDateTime(val, zoneId);
+            return localDateTime == null ? null : localDateTime.with(LocalTime.MAX);
         }
     },
 
@@ -153,46 +123,58 @@ public enum ConverterStrategy implements Converter {
      */
     TO_DATE_START("TO_DATE_START") {
         @Override
-        public Object convert(Object val) {
-            if (val == null) {
-                return null;
-            }
-            LocalDateTime localDateTime = null;
-            if (val instanceof Date) {
-                localDateTime = DateTimeUtils.toLocalDateTime((Date)val);
-            } else if (val instanceof Long) {
-                localDateTime = DateTimeUtils.toLocalDateTime(new Date((Long)val));
-            } else if (val instanceof LocalDateTime) {
-                localDateTime = (LocalDateTime)val;
-            } else if (val instanceof LocalDate) {
-                localDateTime = ((LocalDate)val).atStartOfDay();
-            } else {
-                throw new IllegalArgumentException(
-                    "不支持 " + val.getClass().getCanonicalName() + " 到 java.lang.Date 的类型转换");
-            }
-            return localDateTime.with(LocalTime.MIN);
+        public Object convert(Object val, ZoneId zoneId) {
+            LocalDateTime localDateTime = toLocalDateTime(val, zoneId);
+            return localDateTime == null ? null : localDateTime.with(LocalTime.MIN);
         }
     },
 
+    /**
+     * 日期维度 yyyyMMdd, 如 20240101
+     */
     TO_DIM_DATE("DIM_DATE") {
         @Override
-        public Object convert(Object val) {
+        public Object convert(Object val, ZoneId zoneId) {
+            LocalDateTime localDateTime = toLocalDateTime(val, zoneId);
+            return localDateTime == null ? null : DateTimeUtils.toDateKey(localDateTime.toLocalDate());
+        }
+    },
+
+    /**
+     * 自 1970-01-01 起的天数
+     */
+    TO_EPOCH_DAY("TO_EPOCH_DAY") {
+        @Override
+        public Object convert(Object val, ZoneId zoneId) {
+            LocalDateTime localDateTime = toLocalDateTime(val, zoneId);
+            return localDateTime == null ? null : localDateTime.toLocalDate().toEpochDay();
+        }
+    },
+
+    /**
+     * 自 1970-01-01T00:00:00Z 起的秒数
+     */
+    TO_EPOCH_SECOND("TO_EPOCH_SECOND") {
+        @Override
+        public Object convert(Object val, ZoneId zoneId) {
             if (val instanceof Date) {
-                return Integer.valueOf(new SimpleDateFormat("yyyyMMdd").format((Date)val));
+                return Math.floorDiv(((Date)val).getTime(), 1000L);
             } else if (val instanceof Long) {
-                return Integer.valueOf(new SimpleDateFormat("yyyyMMdd").format(new Date((Long)val)));
+                return Math.floorDiv((Long)val, 1000L);
             }
-            return null;
+            LocalDateTime localDateTime = toLocalDateTime(val, zoneId);
+            return localDateTime == null ? null : localDateTime.atZone(zoneId).toEpochSecond();
         }
     },
 
+    /**
+     * 字符串去除两端空格, 其它类型 (包括日期) 保留原样; 需要按天取边界时显式指定 {@link #TO_DATE_START} 或 {@link #TO_DATE_END}
+     */
     DEFAULT("DEFAULT") {
         @Override
         public Object convert(Object val) {
             if (val instanceof String) {
                 return ConverterStrategy.TRIM_STRING_TO_NULL.convert(val);
-            } else if (val instanceof Date || val instanceof LocalDate || val instanceof LocalDateTime) {
-                return ConverterStrategy.TO_DATE_END.convert(val);
             } else {
                 return ConverterStrategy.RETAIN_VALUE.convert(val);
             }
@@ -205,4 +187,38 @@ public enum ConverterStrategy implements Converter {
     ConverterStrategy(String name) {
         this.name = name;
     }
+
+    @Override
+    public Object convert(Object val) {
+        return convert(val, ZoneId.systemDefault());
+    }
+
+    /**
+     * 按指定时区转换, 只有日期相关的策略会用到时区
+     *
+     * @param val 原始值
+     * @param zoneId 时区, {@link Date} 和毫秒时间戳按该时区转换为本地时间
+     * @return 转换后的值
+     */
+    public Object convert(Object val, ZoneId zoneId) {
+        return convert(val);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object val, ZoneId zoneId) {
+        if (val == null) {
+            return null;
+        }
+        if (val instanceof LocalDateTime) {
+            return (LocalDateTime)val;
+        } else if (val instanceof LocalDate) {
+            return ((LocalDate)val).atStartOfDay();
+        } else if (val instanceof Date) {
+            // java.sql.Date 不支持 toInstant, 统一按毫秒数转换
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date)val).getTime()), zoneId);
+        } else if (val instanceof Long) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli((Long)val), zoneId);
+        }
+        throw new IllegalArgumentException(
+            "不支持 " + val.getClass().getCanonicalName() + " 到 java.time.LocalDateTime 的类型转换");
+    }
 }
@@ -15,31 +15,68 @@
  */
 package top.sephy.infra.mybatis.query;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.google.common.base.CaseFormat;
 
 import lombok.Data;
+import lombok.NonNull;
+import top.sephy.infra.paging.KeysetCursor;
+import top.sephy.infra.paging.KeysetQuery;
 import top.sephy.infra.utils.JacksonUtils;
+import top.sephy.infra.utils.LambdaAccessorUtils;
 
 public class DefaultQueryContextExtractor implements QueryContextExtractor {
 
+    private static final String KEYSET_SORT = "_keysetSort";
+
+    private static final String KEYSET_ID = "_keysetId";
+
+    /**
+     * 与原先 {@link JacksonUtils#convertToMapIncludeNull(Object)} 相同的配置, 只用于确定参数的名称和可见性
+     */
+    private static final SerializationConfig PARAM_INTROSPECTION =
+        JacksonUtils.newDefaultObjectMapper().getSerializationConfig();
+
     private boolean camelToUnderline = true;
 
+    /**
+     * 日期类转换策略使用的时区, 创建时确定, 避免每次转换都查询系统默认时区
+     */
+    private final ZoneId zoneId;
+
     private Map<String, Converter> converterMap = new HashMap<>();
     private ConcurrentHashMap<Class<?>, QueryMetaInfo> cache = new ConcurrentHashMap<>();
 
     public DefaultQueryContextExtractor(boolean camelToUnderline) {
+        this(camelToUnderline, ZoneId.systemDefault());
+    }
+
+    public DefaultQueryContextExtractor(boolean camelToUnderline, @NonNull ZoneId zoneId) {
         this.camelToUnderline = camelToUnderline;
+        this.zoneId = zoneId;
         initConverterMap();
     }
 
@@ -51,52 +88,143 @@ public class DefaultQueryContextExtractor implements QueryContextExtractor {
 
     @Override
     public QueryContext extract(Object object) {
-        List<QueryExpression<Object>> conditionList = new ArrayList<>();
-        Map<String, QueryExpression<Object>> conditionMap = new HashMap<>();
-        Class<?> clazz = object.getClass();
-        Map<String, Object> params = JacksonUtils.convertToMap(object);
-
-        QueryMetaInfo meta = cache.computeIfAbsent(clazz, this::extraCriteriaMeta);
-
-        Map<String, $QueryCondition> criteriaMap = meta.getConditionMap();
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String key = entry.getKey();
-            $QueryCondition condition = criteriaMap.get(key);
-            if (condition != null) {
-                QueryExpression<Object> queryExpression = new QueryExpression<>();
-                queryExpression.setField(condition.name);
-                queryExpression.setOp(condition.op());
-                Converter<Object, Object> converter = condition.converter;
-                Object val = converter.convert(entry.getValue());
-                if (condition.ignoreNull && val == null) {
-                    continue;
-                }
-                queryExpression.setVal(val);
+        return extract(object, null);
+    }
 
-                conditionList.add(queryExpression);
-                conditionMap.put(key, queryExpression);
+    /**
+     * 按类缓存的属性读取器逐个读取属性, 一次遍历同时生成查询条件和参数
+     * <p>
+     * 参数的名称和可见性与 Jackson 序列化一致 ({@code @JsonProperty} 重命名, {@code @JsonIgnore}, 只有 getter 的计算属性), 但值是属性的原始
+     * Java 类型, 不再经过 Jackson 的序列化器: 日期不会被格式化为字符串, {@code @JsonHashId} 的 Long 也不会被编码。查询条件只从 Jackson 可见的字段生成,
+     * 条件字段仍按字段名索引。
+     */
+    @Override
+    public QueryContext extract(Object object, Map<String, Object> params) {
+        QueryMetaInfo meta = cache.computeIfAbsent(object.getClass(), this::extraCriteriaMeta);
+
+        List<$QueryProperty> properties = meta.getProperties();
+        List<QueryExpression<Object>> conditionList = new ArrayList<>(meta.getConditionCount());
+        Map<String, QueryExpression<Object>> conditionMap = new HashMap<>(capacityFor(meta.getConditionCount()));
+        Map<String, Object> whereValues = new HashMap<>(capacityFor(meta.getConditionCount()));
+        long presenceMask = 0L;
+        for ($QueryProperty property : properties) {
+            $QueryCondition condition = property.condition();
+            boolean asParam = params != null && property.paramName() != null;
+            if (condition == null && !asParam) {
+                continue;
+            }
+            Object rawValue = property.getter().apply(object);
+            if (asParam) {
+                params.put(property.paramName(), rawValue);
+            }
+            // 与原先基于非 null 属性的行为保持一致, 属性为 null 时不生成条件
+            if (condition == null || rawValue == null) {
+                continue;
+            }
+            Converter<Object, Object> converter = condition.converter;
+            Object val = converter.convert(rawValue);
+            if (condition.ignoreNull && val == null) {
+                continue;
+            }
+            QueryExpression<Object> queryExpression = new QueryExpression<>();
+            queryExpression.setField(condition.name);
+            queryExpression.setOp(condition.op());
+            queryExpression.setVal(val);
+
+            conditionList.add(queryExpression);
+            conditionMap.put(property.key(), queryExpression);
+            whereValues.put(property.key(), WhereTemplate.bindValue(condition.op(), val));
+            presenceMask |= 1L << property.conditionIndex();
+        }
+        if (params != null) {
+            for ($Param param : meta.getParams()) {
+                params.put(param.name(), param.getter().apply(object));
             }
         }
         QueryContext queryContext = new QueryContext();
         queryContext.setExpressions(conditionList);
         queryContext.setExpressionMap(conditionMap);
+        queryContext.setWhereSql(meta.whereTemplate(presenceMask, conditionMap.keySet()).sql(whereValues));
+        queryContext.setWhereValues(whereValues);
+        if (object instanceof KeysetQuery keysetQuery) {
+            applyKeyset(meta, keysetQuery, queryContext);
+        }
         return queryContext;
     }
 
+    /**
+     * 生成游标分页的排序片段, 有游标时追加 {@code (sort_key, id) > (?, ?)} 条件
+     */
+    private void applyKeyset(QueryMetaInfo meta, KeysetQuery query, QueryContext queryContext) {
+        String sortField = StringUtils.hasText(query.getSortField()) ? query.getSortField() : null;
+        $SortKey sortKey = null;
+        if (sortField != null) {
+            sortKey = meta.getSortKeys().get(sortField);
+            if (sortKey == null) {
+                throw new IllegalArgumentException("sort field is not sortable: " + sortField);
+            }
+        }
+        String idColumn = query.keysetIdColumn();
+        String direction = query.isDescending() ? " DESC" : " ASC";
+        boolean byId = sortKey == null || sortKey.column().equals(idColumn);
+        queryContext.setOrderBySql(
+            byId ? idColumn + direction : sortKey.column() + direction + ", " + idColumn + direction);
+
+        KeysetCursor cursor = KeysetCursor.decode(query.getCursor());
+        if (cursor == null) {
+            return;
+        }
+        if (!cursor.matches(sortField, query.isDescending())) {
+            throw new IllegalArgumentException("cursor does not match the current sort");
+        }
+        String op = query.isDescending() ? " < " : " > ";
+        String idParam = "#{" + QueryContext.WHERE_VALUES + "." + KEYSET_ID + "}";
+        Map<String, Object> whereValues = queryContext.getWhereValues();
+        whereValues.put(KEYSET_ID, cursor.id());
+        String predicate;
+        if (byId) {
+            predicate = idColumn + op + idParam;
+        } else {
+            whereValues.put(KEYSET_SORT, sortKey.convert(cursor.sortValue()));
+            predicate = "(" + sortKey.column() + ", " + idColumn + ")" + op + "(#{" + QueryContext.WHERE_VALUES + "."
+                + KEYSET_SORT + "}, " + idParam + ")";
+        }
+        queryContext.setWhereSql(WhereTemplate.and(queryContext.getWhereSql(), predicate));
+    }
+
     private synchronized QueryMetaInfo extraCriteriaMeta(Class<?> clazz) {
 
-        Map<String, $QueryCondition> conditionMap = new HashMap<>();
+        Map<String, $QueryProperty> propertyMap = new LinkedHashMap<>();
+        Map<String, $SortKey> sortKeys = new HashMap<>();
+        int[] conditionCount = new int[1];
+
+        // Jackson 可见的属性, 按内部名称 (字段名/去掉 get 前缀的方法名) 索引
+        Map<String, BeanPropertyDefinition> jsonProperties = new LinkedHashMap<>();
+        BeanDescription description = PARAM_INTROSPECTION.introspect(PARAM_INTROSPECTION.constructType(clazz));
+        for (BeanPropertyDefinition definition : description.findProperties()) {
+            if (definition.couldSerialize()) {
+                jsonProperties.put(definition.getInternalName(), definition);
+            }
+        }
 
         ReflectionUtils.doWithFields(clazz, field -> {
 
+            // 子类字段优先, 与属性序列化时的覆盖规则一致
+            if (propertyMap.containsKey(field.getName())) {
+                return;
+            }
+
+            $QueryCondition condition = null;
+            BeanPropertyDefinition jsonProperty = jsonProperties.get(field.getName());
             IgnoreQuery ignoreQuery = field.getAnnotation(IgnoreQuery.class);
-            if (ignoreQuery == null) {
+            // Jackson 不可见的字段 (@JsonIgnore, 没有 getter) 与原先一样不生成条件
+            if (ignoreQuery == null && jsonProperty != null) {
 
                 String name = field.getName();
                 boolean nameSpecified = false;
                 QueryCondition queryCondition = field.getAnnotation(QueryCondition.class);
                 QueryOperator op = QueryOperator.EQ;
-                Converter converter = ConverterStrategy.DEFAULT;
+                ConverterStrategy converterStrategy = ConverterStrategy.DEFAULT;
                 boolean ignoreNull = true;
 
                 if (queryCondition != null) {
@@ -106,31 +234,130 @@ public class DefaultQueryContextExtractor implements QueryContextExtractor {
                     }
                     op = queryCondition.operator();
                     ignoreNull = queryCondition.ignoreNull();
-                    converter = queryCondition.converterStrategy();
+                    converterStrategy = queryCondition.converterStrategy();
                 }
 
                 if (!nameSpecified && camelToUnderline) {
                     name = CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name);
                 }
 
-                if (StringUtils.hasText(queryCondition.tableAlias())) {
+                if (queryCondition != null && StringUtils.hasText(queryCondition.tableAlias())) {
                     name = queryCondition.tableAlias() + "." + name;
                 }
 
-                conditionMap.put(field.getName(), new $QueryCondition(name, op, converter, ignoreNull));
+                condition = new $QueryCondition(name, op, zoneAware(converterStrategy), ignoreNull);
+                if (queryCondition != null && queryCondition.sortable()) {
+                    sortKeys.put(field.getName(), new $SortKey(name, field.getType()));
+                }
             }
 
-        });
+            int conditionIndex = condition == null ? -1 : conditionCount[0]++;
+            propertyMap.put(field.getName(),
+                new $QueryProperty(field.getName(), LambdaAccessorUtils.getter(clazz, field), condition,
+                    conditionIndex, jsonProperty == null ? null : jsonProperty.getName()));
+
+        }, field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()));
+
+        // 没有对应字段的属性 (如只有 getter 的计算属性) 只作为参数
+        List<$Param> params = new ArrayList<>();
+        for (BeanPropertyDefinition definition : jsonProperties.values()) {
+            if (!propertyMap.containsKey(definition.getInternalName())) {
+                params.add(new $Param(definition.getName(), accessor(definition.getAccessor())));
+            }
+        }
+
         QueryMetaInfo meta = new QueryMetaInfo();
-        meta.setConditionMap(conditionMap);
+        meta.setProperties(List.copyOf(propertyMap.values()));
+        meta.setParams(List.copyOf(params));
+        meta.setConditionCount(conditionCount[0]);
+        meta.setSortKeys(Map.copyOf(sortKeys));
         return meta;
     }
 
+    private static Function<Object, Object> accessor(AnnotatedMember member) {
+        if (member.getMember() instanceof Method method) {
+            return LambdaAccessorUtils.getter(method);
+        }
+        Field field = (Field)member.getMember();
+        return LambdaAccessorUtils.getter(field.getDeclaringClass(), field);
+    }
+
+    private Converter<Object, Object> zoneAware(ConverterStrategy converterStrategy) {
+        ZoneId zone = this.zoneId;
+        return val -> converterStrategy.convert(val, zone);
+    }
+
+    private static int capacityFor(int size) {
+        return (int)(size / 0.75f) + 1;
+    }
+
     private record $QueryCondition(String name, QueryOperator op, Converter converter, boolean ignoreNull) {
     }
 
+    /**
+     * @param key 字段名
+     * @param paramName 写入 mapper 参数时的名称, 为 null 时不作为参数
+     */
+    private record $QueryProperty(String key, Function<Object, Object> getter, $QueryCondition condition,
+        int conditionIndex, String paramName) {
+    }
+
+    private record $Param(String name, Function<Object, Object> getter) {
+    }
+
+    private record $SortKey(String column, Class<?> type) {
+
+        /**
+         * 游标中的值经过 JSON 编码后类型可能变化 (如日期变为字符串), 按查找对象属性的类型还原
+         */
+        Object convert(Object value) {
+            if (type.isArray() || Collection.class.isAssignableFrom(type)) {
+                return value;
+            }
+            return KeysetCursor.restore(value, type);
+        }
+    }
+
     @Data
     private static class QueryMetaInfo {
-        private Map<String, $QueryCondition> conditionMap;
+
+        private List<$QueryProperty> properties;
+
+        /**
+         * 只作为参数的属性
+         */
+        private List<$Param> params;
+
+        private int conditionCount;
+
+        /**
+         * 可排序的属性名 -> 排序列
+         */
+        private Map<String, $SortKey> sortKeys;
+
+        /**
+         * 条件字段是否存在的位掩码 -> WHERE 条件片段
+         */
+        private final ConcurrentHashMap<Long, WhereTemplate> whereTemplates = new ConcurrentHashMap<>();
+
+        WhereTemplate whereTemplate(long presenceMask, Set<String> presentKeys) {
+            // 超过 64 个条件字段时位掩码无法区分, 不缓存
+            if (conditionCount > Long.SIZE) {
+                return buildWhereTemplate(property -> presentKeys.contains(property.key()));
+            }
+            return whereTemplates.computeIfAbsent(presenceMask,
+                mask -> buildWhereTemplate(property -> (mask & (1L << property.conditionIndex())) != 0));
+        }
+
+        private WhereTemplate buildWhereTemplate(Predicate<$QueryProperty> present) {
+            List<WhereTemplate.Segment> segments = new ArrayList<>();
+            for ($QueryProperty property : properties) {
+                $QueryCondition condition = property.condition();
+                if (condition != null && present.test(property)) {
+                    segments.add(WhereTemplate.segment(property.key(), condition.name(), condition.op()));
+                }
+            }
+            return new WhereTemplate(segments);
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package top.sephy.infra.mybatis.query;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,10 +24,48 @@ import lombok.Data;
 @Data
 public class QueryContext {
 
+    /**
+     * {@link #whereSql} 中引用参数时使用的参数名
+     */
+    public static final String WHERE_VALUES = "_whereValues";
+
     List<QueryExpression<Object>> expressions;
 
     Map<String, QueryExpression<Object>> expressionMap;
 
+    /**
+     * 预编译的 WHERE 条件片段, 参数引用 {@link #whereValues}
+     */
+    String whereSql;
+
+    /**
+     * WHERE 条件片段的参数, key 为查询对象的属性名, {@link #nest(String)} 之后为查询对象的参数名
+     */
+    Map<String, Object> whereValues;
+
+    /**
+     * 游标分页的排序片段, 非游标分页时为 null
+     */
+    String orderBySql;
+
+    /**
+     * 将 WHERE 条件片段的参数移到 {@code _whereValues.<name>} 下, 多个查询对象合并时同名属性不会互相覆盖
+     *
+     * @param name 查询对象在 mapper 参数中的名称
+     * @return 当前对象
+     */
+    public QueryContext nest(String name) {
+        if (this.whereSql != null && !this.whereSql.isEmpty()) {
+            this.whereSql = this.whereSql.replace("#{" + WHERE_VALUES + ".", "#{" + WHERE_VALUES + "." + name + ".");
+        }
+        if (this.whereValues != null) {
+            Map<String, Object> nested = new HashMap<>();
+            nested.put(name, this.whereValues);
+            this.whereValues = nested;
+        }
+        return this;
+    }
+
     public QueryContext merge(QueryContext other) {
         if (other == null) {
             return this;
@@ -37,6 +76,16 @@ public class QueryContext {
         if (other.getExpressionMap() != null) {
             this.getExpressionMap().putAll(other.getExpressionMap());
         }
+        this.whereSql = WhereTemplate.and(this.whereSql, other.getWhereSql());
+        if (other.getWhereValues() != null) {
+            if (this.whereValues == null) {
+                this.whereValues = new HashMap<>();
+            }
+            this.whereValues.putAll(other.getWhereValues());
+        }
+        if (this.orderBySql == null) {
+            this.orderBySql = other.getOrderBySql();
+        }
         return this;
     }
 }
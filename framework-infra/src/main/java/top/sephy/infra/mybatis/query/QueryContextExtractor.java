@@ -15,7 +15,25 @@
  */
 package top.sephy.infra.mybatis.query;
 
+import java.util.Map;
+
+import top.sephy.infra.utils.JacksonUtils;
+
 public interface QueryContextExtractor {
 
     QueryContext extract(Object object);
+
+    /**
+     * 提取查询条件, 同时将查询对象的全部属性(包括 null 值)写入 params
+     *
+     * @param object 查询对象
+     * @param params 参数集合, 为 null 时只提取查询条件
+     * @return 查询条件
+     */
+    default QueryContext extract(Object object, Map<String, Object> params) {
+        if (params != null) {
+            params.putAll(JacksonUtils.convertToMapIncludeNull(object));
+        }
+        return extract(object);
+    }
 }
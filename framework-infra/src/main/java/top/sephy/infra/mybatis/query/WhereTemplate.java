@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * 预编译的 WHERE 条件片段, 由查询对象类型和非 null 条件字段的组合决定
+ * <p>
+ * 片段中的参数以 {@code #{_whereValues.属性名}} 的形式引用 {@link QueryContext#getWhereValues()} 中的值, 在 mapper 中通过
+ * {@code ${_whereSql}} 引入后由 MyBatis 解析为预编译参数, 不再需要逐个条件执行 OGNL 表达式。
+ */
+final class WhereTemplate {
+
+    private static final String AND = " AND ";
+
+    private final List<Segment> segments;
+
+    /**
+     * 不包含 in/not in 条件时, 片段与参数个数无关, 直接缓存完整的 SQL
+     */
+    private final String sql;
+
+    WhereTemplate(List<Segment> segments) {
+        this.segments = List.copyOf(segments);
+        boolean iterable = false;
+        for (Segment segment : segments) {
+            iterable |= segment.op().isIterable();
+        }
+        this.sql = iterable ? null : render(null);
+    }
+
+    static Segment segment(String key, String column, QueryOperator op) {
+        StringBuilder sb = new StringBuilder(column.length() + key.length() + 32).append(column).append(' ')
+            .append(op.getOperator());
+        if (op.isBinary() && !op.isIterable()) {
+            sb.append(" #{").append(QueryContext.WHERE_VALUES).append('.').append(key).append('}');
+        }
+        return new Segment(key, op, sb.toString());
+    }
+
+    /**
+     * in/not in 条件的值统一转换为 List, 以便按下标引用
+     */
+    static Object bindValue(QueryOperator op, Object val) {
+        if (!op.isIterable()) {
+            return val;
+        }
+        if (val instanceof List<?>) {
+            return val;
+        }
+        if (val instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (ObjectUtils.isArray(val)) {
+            return CollectionUtils.arrayToList(val);
+        }
+        return List.of(val);
+    }
+
+    /**
+     * 生成 WHERE 条件片段
+     *
+     * @param values 条件参数
+     * @return 以 AND 连接的条件, 没有条件时返回空字符串
+     */
+    String sql(Map<String, Object> values) {
+        return sql != null ? sql : render(values);
+    }
+
+    private String render(Map<String, Object> values) {
+        StringBuilder sb = new StringBuilder(segments.size() * 32);
+        for (Segment segment : segments) {
+            if (!sb.isEmpty()) {
+                sb.append(AND);
+            }
+            QueryOperator op = segment.op();
+            if (!op.isIterable()) {
+                sb.append(segment.sql());
+                continue;
+            }
+            List<?> list = (List<?>)values.get(segment.key());
+            if (list == null || list.isEmpty()) {
+                // in () 不是合法的 SQL
+                sb.append(op == QueryOperator.IN ? "1 = 0" : "1 = 1");
+                continue;
+            }
+            sb.append(segment.sql()).append(" (");
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append("#{").append(QueryContext.WHERE_VALUES).append('.').append(segment.key()).append('[').append(i)
+                    .append("]}");
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    static String and(String left, String right) {
+        if (left == null || left.isEmpty()) {
+            return right;
+        }
+        if (right == null || right.isEmpty()) {
+            return left;
+        }
+        return left + AND + right;
+    }
+
+    record Segment(String key, QueryOperator op, String sql) {
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * 逗号分隔字符串与基本类型数组 (或其他非 Collection 容器) 的转换, 元素不装箱
+ *
+ * @param <A> 数组类型
+ */
+public abstract class AbstractComaStringArrayHandler<A> extends BaseTypeHandler<A> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, A parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, format(parameter));
+    }
+
+    @Override
+    public A getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toArray(rs.getString(columnName));
+    }
+
+    @Override
+    public A getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toArray(rs.getString(columnIndex));
+    }
+
+    @Override
+    public A getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toArray(cs.getString(columnIndex));
+    }
+
+    abstract A empty();
+
+    abstract A parse(String columnValue);
+
+    abstract String format(A value);
+
+    public A toArray(String columnValue) {
+        if (StringUtils.isBlank(columnValue)) {
+            return empty();
+        }
+        return parse(columnValue);
+    }
+}
@@ -21,8 +21,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.type.BaseTypeHandler;
@@ -35,14 +33,7 @@ public abstract class AbstractComaStringCollectionHandler<E extends Serializable
 
     @Override
     public void setNonNullParameter(PreparedStatement ps, int i, T parameter, JdbcType jdbcType) throws SQLException {
-        String val = null;
-        if (parameter.isEmpty()) {
-            val = "";
-        } else {
-            val = parameter.stream().filter(Objects::nonNull).map(String::valueOf).filter(StringUtils::isNoneBlank)
-                .collect(Collectors.joining(DELIMITER));
-        }
-        ps.setString(i, val);
+        ps.setString(i, parameter.isEmpty() ? "" : ComaStringCodec.join(parameter));
     }
 
     @Override
@@ -64,17 +55,29 @@ public abstract class AbstractComaStringCollectionHandler<E extends Serializable
 
     abstract T newCollection();
 
+    /**
+     * 按元素个数预分配容量
+     */
+    T newCollection(int expectedSize) {
+        return newCollection();
+    }
+
     abstract E stringToElement(String str);
 
+    /**
+     * 解析 columnValue 中 [begin, end) 的片段, 数字类型可以覆盖此方法直接按下标解析, 不必先截取子串
+     */
+    E parseElement(String columnValue, int begin, int end) {
+        return stringToElement(columnValue.substring(begin, end));
+    }
+
     public T toCollection(String columnValue) {
         if (StringUtils.isBlank(columnValue)) {
             return empty();
         }
-        String[] values = columnValue.split(DELIMITER);
-        T collection = newCollection();
-        for (String value : values) {
-            collection.add(stringToElement(value));
-        }
+        T collection = newCollection(ComaStringCodec.countTokens(columnValue));
+        ComaStringCodec.forEachToken(columnValue,
+            (source, begin, end) -> collection.add(parseElement(source, begin, end)));
         return collection;
     }
 }
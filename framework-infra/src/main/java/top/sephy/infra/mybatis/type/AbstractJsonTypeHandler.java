@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import lombok.NonNull;
+
+/**
+ * JSON 字段的类型处理基类
+ * <p>
+ * 读取时直接从 {@link ResultSet#getCharacterStream} (或 {@link #readBinaryStream()} 为 true 时从 getBinaryStream) 解析, 不先生成完整的
+ * String; 写入时序列化到线程内复用的缓冲区。同一目标类型的 {@link ObjectReader}/{@link ObjectWriter} 在所有处理器间共享。
+ * <p>
+ * 使用独立的 ObjectMapper, 不会像 {@link top.sephy.infra.utils.JacksonUtils} 的默认配置那样把 Long 序列化为 HashId。
+ *
+ * @param <T> 字段类型
+ */
+public abstract class AbstractJsonTypeHandler<T> extends BaseTypeHandler<T> {
+
+    /**
+     * 超过该容量的写缓冲区用完后丢弃, 避免线程长期持有大对象
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilderWriter> WRITE_BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilderWriter(1024));
+
+    private static final ConcurrentHashMap<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<JavaType, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private static volatile ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .serializationInclusion(JsonInclude.Include.NON_NULL).build();
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    protected AbstractJsonTypeHandler(@NonNull JavaType javaType) {
+        this.reader = READERS.computeIfAbsent(javaType, type -> objectMapper.readerFor(type));
+        this.writer = WRITERS.computeIfAbsent(javaType, type -> objectMapper.writerFor(type));
+    }
+
+    /**
+     * 替换 JSON 字段使用的 ObjectMapper, 需要在 MyBatis 初始化 (创建类型处理器) 之前调用
+     *
+     * @param mapper ObjectMapper
+     */
+    public static void setObjectMapper(@NonNull ObjectMapper mapper) {
+        objectMapper = mapper;
+        READERS.clear();
+        WRITERS.clear();
+    }
+
+    protected static ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 是否从二进制流读取, MySQL 的 JSON 类型以 UTF-8 字节返回, 按字节解析可以省去一次字符解码
+     */
+    protected boolean readBinaryStream() {
+        return false;
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, T parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, toJson(parameter));
+    }
+
+    @Override
+    public T getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        if (readBinaryStream()) {
+            return parse(rs.getBinaryStream(columnName));
+        }
+        return parse(rs.getCharacterStream(columnName));
+    }
+
+    @Override
+    public T getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        if (readBinaryStream()) {
+            return parse(rs.getBinaryStream(columnIndex));
+        }
+        return parse(rs.getCharacterStream(columnIndex));
+    }
+
+    @Override
+    public T getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getCharacterStream(columnIndex));
+    }
+
+    public String toJson(T value) throws SQLException {
+        StringBuilderWriter buffer = WRITE_BUFFER.get();
+        buffer.reset();
+        try {
+            writer.writeValue(buffer, value);
+            return buffer.toString();
+        } catch (IOException e) {
+            throw new SQLException("JSON 序列化失败: " + value.getClass().getName(), e);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                WRITE_BUFFER.remove();
+            }
+        }
+    }
+
+    private T parse(Reader source) throws SQLException {
+        if (source == null) {
+            return null;
+        }
+        try (Reader in = source; JsonParser parser = reader.createParser(in)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new SQLException("JSON 解析失败", e);
+        }
+    }
+
+    private T parse(InputStream source) throws SQLException {
+        if (source == null) {
+            return null;
+        }
+        try (InputStream in = source; JsonParser parser = reader.createParser(in)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new SQLException("JSON 解析失败", e);
+        }
+    }
+
+    /**
+     * 空字符串按 null 处理
+     */
+    private T read(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return null;
+        }
+        return readValue(reader, parser);
+    }
+
+    protected T readValue(ObjectReader reader, JsonParser parser) throws IOException {
+        return reader.readValue(parser);
+    }
+
+    /**
+     * 可复用的 Writer, 非线程安全
+     */
+    static final class StringBuilderWriter extends Writer {
+
+        private final StringBuilder sb;
+
+        StringBuilderWriter(int capacity) {
+            this.sb = new StringBuilder(capacity);
+        }
+
+        void reset() {
+            sb.setLength(0);
+        }
+
+        int capacity() {
+            return sb.capacity();
+        }
+
+        @Override
+        public void write(int c) {
+            sb.append((char)c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            sb.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
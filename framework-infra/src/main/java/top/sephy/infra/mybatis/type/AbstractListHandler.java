@@ -32,4 +32,9 @@ public abstract class AbstractListHandler<E extends Serializable>
     List<E> newCollection() {
         return new ArrayList<>();
     }
+
+    @Override
+    List<E> newCollection(int expectedSize) {
+        return new ArrayList<>(expectedSize);
+    }
 }
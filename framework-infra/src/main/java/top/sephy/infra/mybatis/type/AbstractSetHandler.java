@@ -32,4 +32,9 @@ public abstract class AbstractSetHandler<E extends Serializable>
     Set<E> newCollection() {
         return new HashSet<>();
     }
+
+    @Override
+    Set<E> newCollection(int expectedSize) {
+        return HashSet.newHashSet(expectedSize);
+    }
 }
\ No newline at end of file
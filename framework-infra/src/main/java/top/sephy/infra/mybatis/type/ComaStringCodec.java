@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.util.Collection;
+
+/**
+ * 逗号分隔字符串的编解码, 按下标扫描, 不走正则也不生成中间数组
+ * <p>
+ * 空白片段 (如 "1,,2" 中间的部分) 会被跳过, 与写入时过滤空值的规则一致。
+ */
+abstract class ComaStringCodec {
+
+    static final char DELIMITER = ',';
+
+    /**
+     * 片段处理, begin/end 为片段在原字符串中的下标
+     */
+    @FunctionalInterface
+    interface TokenConsumer {
+
+        void accept(String source, int begin, int end);
+    }
+
+    static void forEachToken(String value, TokenConsumer consumer) {
+        int length = value.length();
+        int begin = 0;
+        while (begin <= length) {
+            int end = value.indexOf(DELIMITER, begin);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > begin) {
+                consumer.accept(value, begin, end);
+            }
+            begin = end + 1;
+        }
+    }
+
+    /**
+     * 非空片段的个数, 用于预分配容量
+     */
+    static int countTokens(String value) {
+        int count = 0;
+        int length = value.length();
+        int begin = 0;
+        while (begin <= length) {
+            int end = value.indexOf(DELIMITER, begin);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > begin) {
+                count++;
+            }
+            begin = end + 1;
+        }
+        return count;
+    }
+
+    static long[] toLongArray(String value) {
+        long[] result = new long[countTokens(value)];
+        int[] index = new int[1];
+        forEachToken(value, (source, begin, end) -> result[index[0]++] = Long.parseLong(source, begin, end, 10));
+        return result;
+    }
+
+    static int[] toIntArray(String value) {
+        int[] result = new int[countTokens(value)];
+        int[] index = new int[1];
+        forEachToken(value, (source, begin, end) -> result[index[0]++] = Integer.parseInt(source, begin, end, 10));
+        return result;
+    }
+
+    static double[] toDoubleArray(String value) {
+        double[] result = new double[countTokens(value)];
+        int[] index = new int[1];
+        forEachToken(value,
+            (source, begin, end) -> result[index[0]++] = Double.parseDouble(source.substring(begin, end)));
+        return result;
+    }
+
+    static String join(Collection<?> values) {
+        StringBuilder sb = new StringBuilder(values.size() * 8);
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            String str = value instanceof String s ? s : String.valueOf(value);
+            if (str.isBlank()) {
+                continue;
+            }
+            if (!sb.isEmpty()) {
+                sb.append(DELIMITER);
+            }
+            sb.append(str);
+        }
+        return sb.toString();
+    }
+
+    static String join(long[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 8);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(DELIMITER);
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    static String join(int[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 6);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(DELIMITER);
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    static String join(double[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 8);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(DELIMITER);
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import lombok.NonNull;
+
+/**
+ * 只读的 long 集合, 以排序去重后的 long[] 存储, 每个元素 8 字节, 没有装箱对象和哈希桶
+ * <p>
+ * {@link #contains(long)} 为二分查找, 适合一次读出、多次判断的标签/ID 列表; 需要修改时请复制到普通 Set。
+ */
+public final class CompactLongSet extends AbstractSet<Long> {
+
+    private static final CompactLongSet EMPTY = new CompactLongSet(new long[0]);
+
+    private final long[] values;
+
+    private CompactLongSet(long[] sortedDistinct) {
+        this.values = sortedDistinct;
+    }
+
+    public static CompactLongSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 创建集合, 传入的数组会被排序并去重, 调用方之后不应再修改该数组
+     *
+     * @param values 元素
+     * @return 集合
+     */
+    public static CompactLongSet wrap(@NonNull long[] values) {
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(values);
+        int size = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[size - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return new CompactLongSet(size == values.length ? values : Arrays.copyOf(values, size));
+    }
+
+    public static CompactLongSet of(long... values) {
+        return wrap(values.clone());
+    }
+
+    public static CompactLongSet copyOf(@NonNull Collection<? extends Number> values) {
+        long[] array = new long[values.size()];
+        int size = 0;
+        for (Number value : values) {
+            if (value != null) {
+                array[size++] = value.longValue();
+            }
+        }
+        return wrap(size == array.length ? array : Arrays.copyOf(array, size));
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long value && contains(value.longValue());
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * 升序的元素副本
+     */
+    public long[] toLongArray() {
+        return values.clone();
+    }
+
+    /**
+     * 内部数组, 只读
+     */
+    long[] array() {
+        return values;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            @Override
+            public Long next() {
+                if (index >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof CompactLongSet other) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // 与 Set 约定一致: 元素 hashCode 之和
+        int hash = 0;
+        for (long value : values) {
+            hash += Long.hashCode(value);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+public class CompactLongSetHandler extends AbstractComaStringArrayHandler<CompactLongSet> {
+
+    @Override
+    CompactLongSet empty() {
+        return CompactLongSet.empty();
+    }
+
+    @Override
+    CompactLongSet parse(String columnValue) {
+        return CompactLongSet.wrap(ComaStringCodec.toLongArray(columnValue));
+    }
+
+    @Override
+    String format(CompactLongSet value) {
+        return ComaStringCodec.join(value.array());
+    }
+}
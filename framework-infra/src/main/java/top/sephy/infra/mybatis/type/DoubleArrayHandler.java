@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+public class DoubleArrayHandler extends AbstractComaStringArrayHandler<double[]> {
+
+    private static final double[] EMPTY = new double[0];
+
+    @Override
+    double[] empty() {
+        return EMPTY;
+    }
+
+    @Override
+    double[] parse(String columnValue) {
+        return ComaStringCodec.toDoubleArray(columnValue);
+    }
+
+    @Override
+    String format(double[] value) {
+        return ComaStringCodec.join(value);
+    }
+}
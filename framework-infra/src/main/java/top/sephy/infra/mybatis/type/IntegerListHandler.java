@@ -21,4 +21,9 @@ public class IntegerListHandler extends AbstractListHandler<Integer> {
     Integer stringToElement(String str) {
         return Integer.parseInt(str);
     }
+
+    @Override
+    Integer parseElement(String columnValue, int begin, int end) {
+        return Integer.parseInt(columnValue, begin, end, 10);
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * JSON 数组字段, 默认元素为 Map/List/基本类型; 需要具体元素类型时继承并调用 {@link #JsonListTypeHandler(Class)}:
+ *
+ * <pre>
+ * public class TagListHandler extends JsonListTypeHandler&lt;Tag&gt; {
+ *     public TagListHandler() {
+ *         super(Tag.class);
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <E> 元素类型
+ */
+public class JsonListTypeHandler<E> extends AbstractJsonTypeHandler<List<E>> {
+
+    @SuppressWarnings("unchecked")
+    public JsonListTypeHandler() {
+        this((Class<E>)(Class<?>)Object.class);
+    }
+
+    /**
+     * 不能是 public, 否则 MyBatis 会以字段类型 (List) 调用
+     */
+    protected JsonListTypeHandler(Class<E> elementType) {
+        super(TypeFactory.defaultInstance().constructCollectionType(List.class, elementType));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * JSON 对象字段映射为 {@code Map<String, V>}, 保持字段顺序
+ *
+ * @param <V> 值类型
+ * @see JsonListTypeHandler
+ */
+public class JsonMapTypeHandler<V> extends AbstractJsonTypeHandler<Map<String, V>> {
+
+    @SuppressWarnings("unchecked")
+    public JsonMapTypeHandler() {
+        this((Class<V>)(Class<?>)Object.class);
+    }
+
+    /**
+     * 不能是 public, 否则 MyBatis 会以字段类型 (Map) 调用
+     */
+    protected JsonMapTypeHandler(Class<V> valueType) {
+        super(TypeFactory.defaultInstance().constructMapType(LinkedHashMap.class, String.class, valueType));
+    }
+}
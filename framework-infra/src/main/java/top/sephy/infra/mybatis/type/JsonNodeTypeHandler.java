@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * 结构不固定的 JSON 字段映射为 {@link JsonNode}
+ */
+public class JsonNodeTypeHandler extends AbstractJsonTypeHandler<JsonNode> {
+
+    public JsonNodeTypeHandler() {
+        super(TypeFactory.defaultInstance().constructType(JsonNode.class));
+    }
+
+    @Override
+    protected JsonNode readValue(ObjectReader reader, JsonParser parser) throws IOException {
+        return reader.readTree(parser);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * JSON 对象字段, MyBatis 会以字段类型调用 {@link #JsonTypeHandler(Class)}
+ *
+ * @param <T> 字段类型
+ */
+public class JsonTypeHandler<T> extends AbstractJsonTypeHandler<T> {
+
+    public JsonTypeHandler(Class<T> type) {
+        super(TypeFactory.defaultInstance().constructType(type));
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+public class LongArrayHandler extends AbstractComaStringArrayHandler<long[]> {
+
+    private static final long[] EMPTY = new long[0];
+
+    @Override
+    long[] empty() {
+        return EMPTY;
+    }
+
+    @Override
+    long[] parse(String columnValue) {
+        return ComaStringCodec.toLongArray(columnValue);
+    }
+
+    @Override
+    String format(long[] value) {
+        return ComaStringCodec.join(value);
+    }
+}
@@ -21,4 +21,9 @@ public class LongListHandler extends AbstractListHandler<Long> {
     Long stringToElement(String value) {
         return Long.parseLong(value);
     }
+
+    @Override
+    Long parseElement(String columnValue, int begin, int end) {
+        return Long.parseLong(columnValue, begin, end, 10);
+    }
 }
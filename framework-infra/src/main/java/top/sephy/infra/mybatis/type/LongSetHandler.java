@@ -20,4 +20,9 @@ public class LongSetHandler extends AbstractSetHandler<Long> {
     Long stringToElement(String str) {
         return Long.parseLong(str);
     }
+
+    @Override
+    Long parseElement(String columnValue, int begin, int end) {
+        return Long.parseLong(columnValue, begin, end, 10);
+    }
 }
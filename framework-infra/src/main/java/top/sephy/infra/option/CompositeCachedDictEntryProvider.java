@@ -15,31 +15,39 @@
  */
 package top.sephy.infra.option;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import lombok.NonNull;
-
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the options of all {@link DictEntryListProvider} and {@link MultiDictEntryListProvider} beans.
+ * <p>
+ * Readers always work on an immutable {@link DictSnapshot}; {@link #refresh()} builds the next snapshot aside and
+ * publishes it with a single volatile write. Indexes of types whose version (or content) did not change are carried
+ * over to the new snapshot instead of being rebuilt.
+ */
+@Slf4j
 public class CompositeCachedDictEntryProvider implements ApplicationListener<ContextRefreshedEvent> {
 
     private final ObjectProvider<MultiDictEntryListProvider> multiListobjectProvider;
 
     private final ObjectProvider<DictEntryListProvider> singleListProvider;
 
-    private final Map<String, List<DictEntry<Object, Object>>> dictCache = new ConcurrentHashMap<>();
+    private volatile DictSnapshot snapshot = DictSnapshot.EMPTY;
 
     public CompositeCachedDictEntryProvider(ObjectProvider<MultiDictEntryListProvider> multiListobjectProvider,
         ObjectProvider<DictEntryListProvider> singleListProvider) {
@@ -47,36 +55,42 @@ public class CompositeCachedDictEntryProvider implements ApplicationListener<Con
         this.singleListProvider = singleListProvider;
     }
 
+    /**
+     * 当前发布的字典快照
+     *
+     * @return 字典快照
+     */
+    public DictSnapshot snapshot() {
+        return snapshot;
+    }
+
     public Set<String> types() {
-        return dictCache.keySet();
+        return snapshot.types();
     }
 
     public Map<String, List<DictEntry<Object, Object>>> optionsMap() {
-        return ImmutableMap.copyOf(dictCache);
+        ImmutableMap.Builder<String, List<DictEntry<Object, Object>>> builder = ImmutableMap.builder();
+        snapshot.getIndexes().forEach((type, index) -> builder.put(type, index.getOptions()));
+        return builder.build();
     }
 
     public List<DictEntry<Object, Object>> getOptionsByType(String type) {
-        return dictCache.getOrDefault(type, Collections.emptyList());
+        return getIndex(type).getOptions();
+    }
+
+    /**
+     * 获取字典类型的查找索引, 类型不存在时返回空索引
+     *
+     * @param type 字典类型
+     * @return 查找索引
+     */
+    public DictIndex getIndex(String type) {
+        return snapshot.getIndex(type);
     }
 
     public DictEntry<Object, Object> lookUpOption(@NonNull String type, @NonNull Object valueToLookUp,
         boolean compareWithString, boolean caseSensitive) {
-        List<DictEntry<Object, Object>> options = getOptionsByType(type);
-        for (DictEntry<Object, Object> option : options) {
-            Object valueToCompare = option.getValue();
-            if (compareWithString) {
-                String k1 = String.valueOf(valueToLookUp);
-                String k2 = String.valueOf(valueToCompare);
-                if (caseSensitive && StringUtils.equals(k1, k2)) {
-                    return option;
-                } else if (!caseSensitive && StringUtils.equalsIgnoreCase(k1, k2)) {
-                    return option;
-                }
-            } else if (Objects.equals(valueToLookUp, valueToCompare)) {
-                return option;
-            }
-        }
-        return null;
+        return getIndex(type).lookUp(valueToLookUp, compareWithString, caseSensitive);
     }
 
     public String getLabel(@NonNull String type, @NonNull Object valueToLookUp, boolean compareWithString,
@@ -88,16 +102,120 @@ public class CompositeCachedDictEntryProvider implements ApplicationListener<Con
         return defaultValue;
     }
 
-    public void refresh() {
+    /**
+     * 重新加载所有字典, 数据源不再返回的类型会被移除
+     */
+    public synchronized void refresh() {
+        DictSnapshot current = this.snapshot;
+        Map<String, DictIndex> previous = current.getIndexes();
+        Map<String, DictIndex> indexes = new HashMap<>();
+        int changed = 0;
+
+        Iterator<DictEntryListProvider> singleIterator = singleListProvider.stream().iterator();
+        while (singleIterator.hasNext()) {
+            DictEntryListProvider<Object, Object> provider = singleIterator.next();
+            String type = provider.getType();
+            long version = provider.getVersion();
+            DictIndex old = previous.get(type);
+            if (old != null && old.isUpToDate(version)) {
+                indexes.put(type, old);
+                continue;
+            }
+            DictIndex index = reuseOrBuild(old, provider.getOptions(), version);
+            indexes.put(type, index);
+            changed += index == old ? 0 : 1;
+        }
+
         Iterator<MultiDictEntryListProvider> iterator = multiListobjectProvider.stream().iterator();
-        singleListProvider.stream().forEach(provider -> dictCache.put(provider.getType(), provider.getOptions()));
         while (iterator.hasNext()) {
             MultiDictEntryListProvider<Object, Object> provider = iterator.next();
             Map<String, List<DictEntry<Object, Object>>> tmp = provider.optionsMap();
             for (Map.Entry<String, List<DictEntry<Object, Object>>> entry : tmp.entrySet()) {
-                dictCache.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+                String type = entry.getKey();
+                long version = provider.getVersion(type);
+                DictIndex old = previous.get(type);
+                DictIndex index =
+                    old != null && old.isUpToDate(version) ? old : reuseOrBuild(old, entry.getValue(), version);
+                indexes.put(type, index);
+                changed += index == old ? 0 : 1;
             }
         }
+
+        if (changed == 0 && indexes.keySet().equals(previous.keySet())) {
+            log.debug("字典数据未变化, 保留快照 version={}", current.getVersion());
+            return;
+        }
+        publish(current, indexes, changed);
+    }
+
+    /**
+     * 只重新加载指定的字典类型, 忽略数据源版本号; 数据源不再返回的类型会被移除
+     *
+     * @param types 字典类型
+     */
+    public synchronized void refresh(@NonNull Collection<String> types) {
+        if (types.isEmpty()) {
+            return;
+        }
+        DictSnapshot current = this.snapshot;
+        Map<String, DictIndex> previous = current.getIndexes();
+        Map<String, DictIndex> indexes = new HashMap<>(previous);
+        Set<String> missing = new HashSet<>(types);
+        int changed = 0;
+
+        Iterator<DictEntryListProvider> singleIterator = singleListProvider.stream().iterator();
+        while (singleIterator.hasNext()) {
+            DictEntryListProvider<Object, Object> provider = singleIterator.next();
+            String type = provider.getType();
+            if (types.contains(type)) {
+                DictIndex old = previous.get(type);
+                DictIndex index = reuseOrBuild(old, provider.getOptions(), provider.getVersion());
+                indexes.put(type, index);
+                missing.remove(type);
+                changed += index == old ? 0 : 1;
+            }
+        }
+
+        Iterator<MultiDictEntryListProvider> iterator = multiListobjectProvider.stream().iterator();
+        while (iterator.hasNext()) {
+            MultiDictEntryListProvider<Object, Object> provider = iterator.next();
+            // types() 默认也是加载 optionsMap() 得到的, 只加载一次
+            Map<String, List<DictEntry<Object, Object>>> tmp = provider.optionsMap();
+            if (Collections.disjoint(tmp.keySet(), types)) {
+                continue;
+            }
+            for (String type : types) {
+                List<DictEntry<Object, Object>> options = tmp.get(type);
+                if (options != null) {
+                    DictIndex old = previous.get(type);
+                    DictIndex index = reuseOrBuild(old, options, provider.getVersion(type));
+                    indexes.put(type, index);
+                    missing.remove(type);
+                    changed += index == old ? 0 : 1;
+                }
+            }
+        }
+
+        boolean removed = indexes.keySet().removeAll(missing);
+        if (changed == 0 && !removed) {
+            log.debug("字典 {} 未变化, 保留快照 version={}", types, current.getVersion());
+            return;
+        }
+        publish(current, indexes, changed);
+    }
+
+    private DictIndex reuseOrBuild(DictIndex old, List<DictEntry<Object, Object>> options, long version) {
+        if (old != null && old.hasSameOptions(options)) {
+            // 记录新的版本号, 否则之后的每次刷新都会因为版本号不一致重新加载
+            return old.withVersion(version);
+        }
+        return new DictIndex(options, version);
+    }
+
+    private void publish(DictSnapshot current, Map<String, DictIndex> indexes, int changed) {
+        long version = current.getVersion() + 1;
+        this.snapshot = new DictSnapshot(version, indexes);
+        log.info("字典快照已刷新 version={}, types={}, changed={}", version, indexes.size(), changed);
     }
 
     @Override
@@ -19,7 +19,22 @@ import java.util.List;
 
 public interface DictEntryListProvider<V, L> {
 
+    /**
+     * Version returned by providers that cannot tell whether their options changed
+     */
+    long UNKNOWN_VERSION = -1L;
+
     String getType();
 
     List<DictEntry<V, L>> getOptions();
+
+    /**
+     * Version of the options, e.g. a modification counter or a content hash. When the version is unchanged since the
+     * last refresh the options are not loaded again.
+     *
+     * @return version of the options, {@link #UNKNOWN_VERSION} if not supported
+     */
+    default long getVersion() {
+        return UNKNOWN_VERSION;
+    }
 }
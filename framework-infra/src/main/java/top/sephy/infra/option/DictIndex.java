@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+
+/**
+ * Immutable lookup index of the options of one dict type, built once per refresh.
+ * <p>
+ * Every lookup is a single hash probe. When several options share the same key the first one wins, which keeps the
+ * semantics of the former linear scan.
+ */
+public final class DictIndex {
+
+    static final DictIndex EMPTY = new DictIndex(Collections.emptyList());
+
+    private final List<DictEntry<Object, Object>> options;
+
+    /**
+     * 构建索引时数据源提供的版本号
+     */
+    private final long version;
+
+    /**
+     * value -> option, compared with {@link java.util.Objects#equals(Object, Object)}
+     */
+    private final Map<Object, DictEntry<Object, Object>> exactIndex;
+
+    /**
+     * String.valueOf(value) -> option
+     */
+    private final Map<String, DictEntry<Object, Object>> stringIndex;
+
+    /**
+     * String.valueOf(value) in lower case -> option
+     */
+    private final Map<String, DictEntry<Object, Object>> ignoreCaseIndex;
+
+    /**
+     * value -> option matched by its string form, lets non-string keys skip String.valueOf on lookup
+     */
+    private final Map<Object, DictEntry<Object, Object>> exactToStringIndex;
+
+    /**
+     * value -> option matched by its lower-cased string form
+     */
+    private final Map<Object, DictEntry<Object, Object>> exactToIgnoreCaseIndex;
+
+    public DictIndex(@NonNull List<? extends DictEntry<?, ?>> options) {
+        this(options, DictEntryListProvider.UNKNOWN_VERSION);
+    }
+
+    public DictIndex(@NonNull List<? extends DictEntry<?, ?>> options, long version) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<DictEntry<Object, Object>> list = (List)ImmutableList.copyOf(options);
+        this.options = list;
+        this.version = version;
+        int capacity = capacityFor(list.size());
+        this.exactIndex = new HashMap<>(capacity);
+        this.stringIndex = new HashMap<>(capacity);
+        this.ignoreCaseIndex = new HashMap<>(capacity);
+        for (DictEntry<Object, Object> option : list) {
+            Object value = option.getValue();
+            String key = String.valueOf(value);
+            exactIndex.putIfAbsent(value, option);
+            stringIndex.putIfAbsent(key, option);
+            ignoreCaseIndex.putIfAbsent(key.toLowerCase(Locale.ROOT), option);
+        }
+        this.exactToStringIndex = new HashMap<>(capacity);
+        this.exactToIgnoreCaseIndex = new HashMap<>(capacity);
+        for (Object value : exactIndex.keySet()) {
+            String key = String.valueOf(value);
+            exactToStringIndex.put(value, stringIndex.get(key));
+            exactToIgnoreCaseIndex.put(value, ignoreCaseIndex.get(key.toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    private DictIndex(DictIndex source, long version) {
+        this.options = source.options;
+        this.version = version;
+        this.exactIndex = source.exactIndex;
+        this.stringIndex = source.stringIndex;
+        this.ignoreCaseIndex = source.ignoreCaseIndex;
+        this.exactToStringIndex = source.exactToStringIndex;
+        this.exactToIgnoreCaseIndex = source.exactToIgnoreCaseIndex;
+    }
+
+    public List<DictEntry<Object, Object>> getOptions() {
+        return options;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return options.isEmpty();
+    }
+
+    /**
+     * 数据源版本号一致时认为索引仍然有效
+     *
+     * @param version 数据源当前版本号
+     * @return 是否可以复用
+     */
+    boolean isUpToDate(long version) {
+        return version != DictEntryListProvider.UNKNOWN_VERSION && this.version == version;
+    }
+
+    /**
+     * 字典内容一致时认为索引仍然有效, 用于未提供版本号的数据源
+     *
+     * @param options 数据源当前的字典项
+     * @return 是否可以复用
+     */
+    boolean hasSameOptions(List<? extends DictEntry<?, ?>> options) {
+        return this.options.equals(options);
+    }
+
+    /**
+     * 内容未变化但数据源版本号变化时使用, 与当前索引共享查找结构
+     *
+     * @param version 数据源当前版本号
+     * @return 指定版本号的索引
+     */
+    DictIndex withVersion(long version) {
+        return this.version == version ? this : new DictIndex(this, version);
+    }
+
+    /**
+     * 查找字典项
+     *
+     * @param valueToLookUp 字典值
+     * @param compareWithString 是否转换为字符串后比较
+     * @param caseSensitive 字符串比较时是否区分大小写
+     * @return 匹配的字典项, 未找到时返回 null
+     */
+    public DictEntry<Object, Object> lookUp(@NonNull Object valueToLookUp, boolean compareWithString,
+        boolean caseSensitive) {
+        if (!compareWithString) {
+            return exactIndex.get(valueToLookUp);
+        }
+        if (valueToLookUp instanceof String str) {
+            // 已经是小写的字符串 toLowerCase 会直接返回自身, 不会产生新对象
+            return caseSensitive ? stringIndex.get(str) : ignoreCaseIndex.get(str.toLowerCase(Locale.ROOT));
+        }
+        DictEntry<Object, Object> option =
+            caseSensitive ? exactToStringIndex.get(valueToLookUp) : exactToIgnoreCaseIndex.get(valueToLookUp);
+        if (option != null) {
+            return option;
+        }
+        // 类型不一致 (如 Integer 查 String 字典), 只能退回到字符串比较
+        String key = String.valueOf(valueToLookUp);
+        return caseSensitive ? stringIndex.get(key) : ignoreCaseIndex.get(key.toLowerCase(Locale.ROOT));
+    }
+
+    private static int capacityFor(int size) {
+        return (int)(size / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+
+/**
+ * Immutable view of all dict types at one point in time.
+ * <p>
+ * A refresh never mutates a published snapshot, it builds a new one (sharing the indexes of unchanged types) and
+ * publishes it with a single volatile write, so readers always see a consistent dictionary.
+ */
+public final class DictSnapshot {
+
+    static final DictSnapshot EMPTY = new DictSnapshot(0L, ImmutableMap.of());
+
+    private final long version;
+
+    private final ImmutableMap<String, DictIndex> indexes;
+
+    DictSnapshot(long version, @NonNull Map<String, DictIndex> indexes) {
+        this.version = version;
+        this.indexes = ImmutableMap.copyOf(indexes);
+    }
+
+    /**
+     * 快照版本号, 每次发布新快照时递增
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<String> types() {
+        return indexes.keySet();
+    }
+
+    public Map<String, DictIndex> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * 获取字典类型的查找索引, 类型不存在时返回空索引
+     *
+     * @param type 字典类型
+     * @return 查找索引
+     */
+    public DictIndex getIndex(String type) {
+        DictIndex index = indexes.get(type);
+        return index == null ? DictIndex.EMPTY : index;
+    }
+}
@@ -61,4 +61,14 @@ public interface MultiDictEntryListProvider<VALUE, LABEL> {
     default List<DictEntry<VALUE, LABEL>> getOptionsByType(String type) {
         return optionsMap().getOrDefault(type, Collections.emptyList());
     }
+
+    /**
+     * Get version of options by type, the lookup index of a type is rebuilt only when its version changes
+     *
+     * @param type
+     * @return version of the options, {@link DictEntryListProvider#UNKNOWN_VERSION} if not supported
+     */
+    default long getVersion(String type) {
+        return DictEntryListProvider.UNKNOWN_VERSION;
+    }
 }
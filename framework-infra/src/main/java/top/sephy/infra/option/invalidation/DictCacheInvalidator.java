@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option.invalidation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.SmartLifecycle;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import top.sephy.infra.option.CompositeCachedDictEntryProvider;
+import top.sephy.infra.thread.NamedThreadFactory;
+
+/**
+ * 集群内字典缓存失效处理
+ * <p>
+ * 某个节点调用 {@link #invalidate(String)} 后, 所有节点都会重新加载该字典类型。收到的失效消息会先合并,
+ * 在 debounce 时间内没有新消息(或距第一条消息超过 maxDelay)时才触发一次刷新, 因此后台连续修改多个字典只会导致一次加载。
+ * 
+ * <pre>
+ * &#64;Bean
+ * public DictCacheInvalidator dictCacheInvalidator(CompositeCachedDictEntryProvider provider,
+ *     RedissonClient redissonClient) {
+ *     return new DictCacheInvalidator(provider, new RedissonDictInvalidationTransport(redissonClient));
+ * }
+ * </pre>
+ */
+@Slf4j
+public class DictCacheInvalidator implements SmartLifecycle {
+
+    private final CompositeCachedDictEntryProvider dictEntryProvider;
+
+    private final DictInvalidationTransport transport;
+
+    private final long debounceNanos;
+
+    private final long maxDelayNanos;
+
+    private final Set<String> pendingTypes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private volatile long firstEventNanos;
+
+    private volatile long lastEventNanos;
+
+    private ScheduledExecutorService scheduler;
+
+    private Runnable unsubscribe;
+
+    private volatile boolean running = false;
+
+    public DictCacheInvalidator(CompositeCachedDictEntryProvider dictEntryProvider,
+        DictInvalidationTransport transport) {
+        this(dictEntryProvider, transport, Duration.ofMillis(500), Duration.ofSeconds(5));
+    }
+
+    /**
+     * @param dictEntryProvider 字典缓存
+     * @param transport 消息通道
+     * @param debounce 最后一条消息之后的静默时间
+     * @param maxDelay 第一条消息之后的最长等待时间, 避免持续修改时一直不刷新
+     */
+    public DictCacheInvalidator(@NonNull CompositeCachedDictEntryProvider dictEntryProvider,
+        @NonNull DictInvalidationTransport transport, @NonNull Duration debounce, @NonNull Duration maxDelay) {
+        this.dictEntryProvider = dictEntryProvider;
+        this.transport = transport;
+        this.debounceNanos = debounce.toNanos();
+        this.maxDelayNanos = Math.max(maxDelay.toNanos(), debounceNanos);
+    }
+
+    /**
+     * 通知所有节点重新加载指定字典类型
+     *
+     * @param type 字典类型
+     */
+    public void invalidate(@NonNull String type) {
+        transport.publish(type);
+    }
+
+    /**
+     * 通知所有节点重新加载全部字典
+     */
+    public void invalidateAll() {
+        transport.publish(DictInvalidationTransport.ALL_TYPES);
+    }
+
+    void onInvalidation(String type) {
+        if (!running) {
+            log.debug("字典失效处理未启动, 忽略消息 type={}", type);
+            return;
+        }
+        long now = System.nanoTime();
+        lastEventNanos = now;
+        pendingTypes.add(type);
+        if (flushScheduled.compareAndSet(false, true)) {
+            firstEventNanos = now;
+            scheduleFlush(debounceNanos);
+        }
+    }
+
+    private void scheduleFlush(long delayNanos) {
+        try {
+            scheduler.schedule(this::flush, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // 消息与 stop() 并发时调度器可能已经关闭, 停止后的消息直接丢弃
+            flushScheduled.set(false);
+            log.debug("字典失效处理已停止, 忽略刷新");
+        }
+    }
+
+    private void flush() {
+        long now = System.nanoTime();
+        long quietNanos = now - lastEventNanos;
+        if (quietNanos < debounceNanos && now - firstEventNanos < maxDelayNanos) {
+            scheduleFlush(debounceNanos - quietNanos);
+            return;
+        }
+        // 先复位再取出, 之后到达的消息会安排新的刷新
+        flushScheduled.set(false);
+        List<String> types = new ArrayList<>();
+        Iterator<String> iterator = pendingTypes.iterator();
+        while (iterator.hasNext()) {
+            types.add(iterator.next());
+            iterator.remove();
+        }
+        if (types.isEmpty()) {
+            return;
+        }
+        try {
+            if (types.contains(DictInvalidationTransport.ALL_TYPES)) {
+                dictEntryProvider.refresh();
+            } else {
+                dictEntryProvider.refresh(types);
+            }
+            log.info("已根据失效消息刷新字典: {}", types);
+        } catch (Exception e) {
+            log.error("根据失效消息刷新字典失败: {}", types, e);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("dict-invalidator-", true));
+        running = true;
+        unsubscribe = transport.subscribe(this::onInvalidation);
+        log.info("字典失效处理已启动");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
+        }
+        scheduler.shutdownNow();
+        pendingTypes.clear();
+        flushScheduled.set(false);
+        log.info("字典失效处理已停止");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option.invalidation;
+
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+
+/**
+ * 字典缓存失效消息通道, 用于在集群内广播某个字典类型已变更
+ */
+public interface DictInvalidationTransport {
+
+    /**
+     * 表示所有字典类型
+     */
+    String ALL_TYPES = "*";
+
+    /**
+     * 广播字典类型变更, 所有订阅者(包括当前节点)都会收到
+     *
+     * @param type 字典类型, {@link #ALL_TYPES} 表示全部
+     */
+    void publish(@NonNull String type);
+
+    /**
+     * 订阅字典类型变更
+     *
+     * @param listener 变更的字典类型
+     * @return 取消订阅的句柄
+     */
+    Runnable subscribe(@NonNull Consumer<String> listener);
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 进程内的消息通道, 消息在调用线程上同步投递给所有订阅者
+ * <p>
+ * 用于单机部署或测试, 多个订阅者共享同一个实例即可模拟多个节点
+ */
+@Slf4j
+public class InMemoryDictInvalidationTransport implements DictInvalidationTransport {
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(@NonNull String type) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(type);
+            } catch (Exception e) {
+                log.error("处理字典失效消息失败, type={}", type, e);
+            }
+        }
+    }
+
+    @Override
+    public Runnable subscribe(@NonNull Consumer<String> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option.invalidation;
+
+import java.util.function.Consumer;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import lombok.NonNull;
+
+/**
+ * 基于 Redisson {@link RTopic} 的消息通道, 消息在集群内所有节点间广播
+ */
+public class RedissonDictInvalidationTransport implements DictInvalidationTransport {
+
+    public static final String DEFAULT_TOPIC = "dict:invalidation";
+
+    private final RTopic topic;
+
+    public RedissonDictInvalidationTransport(@NonNull RedissonClient redissonClient) {
+        this(redissonClient, DEFAULT_TOPIC);
+    }
+
+    public RedissonDictInvalidationTransport(@NonNull RedissonClient redissonClient, @NonNull String topicName) {
+        this.topic = redissonClient.getTopic(topicName, StringCodec.INSTANCE);
+    }
+
+    @Override
+    public void publish(@NonNull String type) {
+        topic.publish(type);
+    }
+
+    @Override
+    public Runnable subscribe(@NonNull Consumer<String> listener) {
+        int listenerId = topic.addListener(String.class, (channel, type) -> listener.accept(type));
+        return () -> topic.removeListener(listenerId);
+    }
+}
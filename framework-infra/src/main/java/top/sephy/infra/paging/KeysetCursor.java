@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.paging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * 游标分页的位置, 编码为 URL 安全的 Base64 字符串返回给调用方
+ * <p>
+ * 游标中的值只会作为预编译参数使用, 被篡改也不会造成 SQL 注入; 同时记录了排序字段和方向, 换了排序方式的旧游标会被拒绝。
+ * <p>
+ * 编码使用独立的 ObjectMapper, 不经过 {@link top.sephy.infra.utils.JacksonUtils} 默认的 HashId 等序列化, 保证值可以原样还原。
+ *
+ * @param sortField 排序字段, 按主键排序时为 null
+ * @param descending 是否倒序
+ * @param sortValue 上一页最后一行的排序值
+ * @param id 上一页最后一行的主键
+ */
+public record KeysetCursor(String sortField, boolean descending, Object sortValue, Object id) {
+
+    private static final ObjectMapper MAPPER =
+        JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    public String encode() {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(Arrays.asList(sortField, descending, sortValue, id));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cursor value is not serializable", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param token {@link #encode()} 生成的字符串
+     * @return 游标, token 为空时返回 null
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static KeysetCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        List<?> values;
+        try {
+            values = MAPPER.readValue(Base64.getUrlDecoder().decode(token), List.class);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + token, e);
+        }
+        if (values == null || values.size() != 4 || !(values.get(1) instanceof Boolean descending)
+            || values.get(3) == null || (values.get(0) != null && !(values.get(0) instanceof String))) {
+            throw new IllegalArgumentException("invalid cursor: " + token);
+        }
+        return new KeysetCursor((String)values.get(0), descending, values.get(2), values.get(3));
+    }
+
+    /**
+     * 解码后的值只有 JSON 的基本类型 (如日期为字符串), 按目标类型还原
+     *
+     * @param value 解码后的值
+     * @param type 目标类型
+     * @return 还原后的值
+     */
+    public static Object restore(Object value, Class<?> type) {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        return MAPPER.convertValue(value, type);
+    }
+
+    /**
+     * 游标是否由相同的排序方式生成
+     */
+    public boolean matches(String sortField, boolean descending) {
+        return this.descending == descending
+            && Objects.equals(StringUtils.hasText(this.sortField) ? this.sortField : null,
+                StringUtils.hasText(sortField) ? sortField : null);
+    }
+}
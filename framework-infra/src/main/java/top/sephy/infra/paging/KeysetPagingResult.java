@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.paging;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * 游标分页结果, 没有页码, 通过 {@link #getNextCursor()} 获取下一页
+ */
+@Getter
+public class KeysetPagingResult<T> implements Iterable<T> {
+
+    // 分页大小
+    private int pageSize;
+
+    // 下一页的游标, 没有下一页时为 null
+    private String nextCursor;
+
+    // 总记录数, 未查询时为 null
+    private Long total;
+
+    // 分页内容
+    private List<T> list;
+
+    @JsonCreator
+    public KeysetPagingResult(@JsonProperty("list") List<T> list, @JsonProperty("pageSize") int pageSize,
+        @JsonProperty("nextCursor") String nextCursor, @JsonProperty("total") Long total) {
+        Assert.isTrue(pageSize > 0, "pageSize must be positive.");
+        Assert.isTrue(total == null || total >= 0, "total must not be negative.");
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.list = list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * 分页内容记录数
+     *
+     * @return
+     */
+    public int getNumberOfElements() {
+        return list.size();
+    }
+
+    /**
+     * 是否有下一页
+     *
+     * @return
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * 是否有分页内容
+     *
+     * @return
+     */
+    public boolean hasContent() {
+        return !list.isEmpty();
+    }
+
+    @Override
+    public @NonNull Iterator<T> iterator() {
+        return list.iterator();
+    }
+
+    public static <T> KeysetPagingResult<T> empty(int pageSize) {
+        return new KeysetPagingResult<>(Collections.emptyList(), pageSize, null, null);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.StringUtils;
+
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+
+import lombok.NonNull;
+
+/**
+ * 游标分页查询
+ * <p>
+ * 多查一行判断是否有下一页, 不需要 count; 总记录数只在第一页且 {@link KeysetQuery#isWithTotal()} 时查询。
+ */
+public abstract class KeysetPagingUtils {
+
+    /**
+     * 游标分页查询, 从结果对象上按属性名读取排序值和主键
+     *
+     * @param query 查找对象
+     * @param select 查询方法, 如 {@code () -> mapper.list(query)}
+     * @return 分页结果
+     * @param <T> 结果类型
+     */
+    public static <T> KeysetPagingResult<T> page(@NonNull KeysetQuery query, @NonNull Supplier<List<T>> select) {
+        String sortField = query.getSortField();
+        String idProperty = query.keysetIdProperty();
+        return page(query, select, StringUtils.hasText(sortField) ? row -> readProperty(row, sortField) : row -> null,
+            row -> readProperty(row, idProperty));
+    }
+
+    /**
+     * 游标分页查询
+     *
+     * @param query 查找对象
+     * @param select 查询方法
+     * @param sortValue 读取结果对象的排序值
+     * @param idValue 读取结果对象的主键
+     * @return 分页结果
+     * @param <T> 结果类型
+     */
+    public static <T> KeysetPagingResult<T> page(@NonNull KeysetQuery query, @NonNull Supplier<List<T>> select,
+        @NonNull Function<? super T, Object> sortValue, @NonNull Function<? super T, Object> idValue) {
+        int pageSize = query.getPageSize();
+        boolean count = query.isWithTotal() && !StringUtils.hasText(query.getCursor());
+        Page<T> page = PageHelper.<T>offsetPage(0, pageSize + 1, count).doSelectPage(select::get);
+        List<T> rows = page.getResult();
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            T last = rows.get(pageSize - 1);
+            String sortField = StringUtils.hasText(query.getSortField()) ? query.getSortField() : null;
+            nextCursor = new KeysetCursor(sortField, query.isDescending(),
+                sortField == null ? null : sortValue.apply(last), idValue.apply(last)).encode();
+        }
+        return new KeysetPagingResult<>(rows, pageSize, nextCursor, count ? page.getTotal() : null);
+    }
+
+    private static Object readProperty(Object row, String property) {
+        if (row instanceof Map<?, ?> map) {
+            return map.get(property);
+        }
+        return new BeanWrapperImpl(row).getPropertyValue(property);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.paging;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import top.sephy.infra.mybatis.query.IgnoreQuery;
+
+/**
+ * 游标 (keyset) 分页查找对象, 以上一页最后一行的排序值和主键作为下一页的起点, 不使用 offset, 翻页深度不影响性能
+ * <p>
+ * 排序字段只能是查找对象上 {@code @QueryCondition(sortable = true)} 的属性, 未指定时按主键排序。mapper 中需要引入
+ * {@code ${_whereSql}} 和 {@code ORDER BY ${_orderBySql}}, 配合 {@link KeysetPagingUtils} 查询。
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class KeysetQuery extends QueryObject {
+
+    public static final String DEFAULT_ID_COLUMN = "id";
+
+    public static final String DEFAULT_ID_PROPERTY = "id";
+
+    /**
+     * 上一页返回的 nextCursor, 为空时查询第一页
+     */
+    @Schema(description = "上一页返回的游标, 为空时查询第一页")
+    @IgnoreQuery
+    private String cursor;
+
+    /**
+     * 排序字段 (查找对象的属性名), 为空时按主键排序
+     */
+    @Schema(description = "排序字段, 为空时按主键排序")
+    @IgnoreQuery
+    private String sortField;
+
+    /**
+     * 是否倒序
+     */
+    @Schema(description = "是否倒序")
+    @IgnoreQuery
+    private boolean descending;
+
+    /**
+     * 是否查询总记录数, 只在第一页查询
+     */
+    @Schema(description = "是否查询总记录数, 只在第一页查询")
+    @IgnoreQuery
+    private boolean withTotal;
+
+    /**
+     * 主键列名, 多表查询需要带表别名时覆盖
+     *
+     * @return 主键列名
+     */
+    public String keysetIdColumn() {
+        return DEFAULT_ID_COLUMN;
+    }
+
+    /**
+     * 结果对象上主键的属性名, 用于生成下一页的游标
+     *
+     * @return 主键属性名
+     */
+    public String keysetIdProperty() {
+        return DEFAULT_ID_PROPERTY;
+    }
+}
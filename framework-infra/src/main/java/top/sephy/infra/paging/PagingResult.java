@@ -42,18 +42,27 @@ public class PagingResult<T> implements Iterable<T> {
     // 总记录数
     private long total;
 
+    // 总记录数是否精确, 近似计数超过上限时为 false
+    private boolean exact;
+
     // 分页内容
     private List<T> list;
 
+    public PagingResult(List<T> list, int pageNum, int pageSize, long total) {
+        this(list, pageNum, pageSize, total, true);
+    }
+
     @JsonCreator
     public PagingResult(@JsonProperty("list") List<T> list, @JsonProperty("pageNum") int pageNum,
-        @JsonProperty("pageSize") int pageSize, @JsonProperty("total") long total) {
+        @JsonProperty("pageSize") int pageSize, @JsonProperty("total") long total,
+        @JsonProperty("exact") Boolean exact) {
         Assert.isTrue(pageNum > 0, "pageNum must be positive.");
         Assert.isTrue(pageSize > 0, "pageSize must be positive.");
         Assert.isTrue(total >= 0, "totalElements must net be negative.");
         this.pageNum = pageNum;
         this.pageSize = pageSize;
         this.total = total;
+        this.exact = exact == null || exact;
         this.totalPages = (int)(total / pageSize + (total % pageSize == 0 ? 0 : 1));
         this.list = list == null ? Collections.EMPTY_LIST : list;
     }
@@ -121,6 +130,10 @@ public class PagingResult<T> implements Iterable<T> {
         return new PagingResult<T>(page.getResult(), page.getPageNum(), page.getPageSize(), page.getTotal());
     }
 
+    public static <T> PagingResult<T> fromPage(com.github.pagehelper.Page<T> page, boolean exact) {
+        return new PagingResult<T>(page.getResult(), page.getPageNum(), page.getPageSize(), page.getTotal(), exact);
+    }
+
     public static <T> PagingResult<T> fromPage(com.baomidou.mybatisplus.extension.plugins.pagination.Page<T> page) {
         return new PagingResult<T>(page.getRecords(), (int)page.getCurrent(), (int)page.getSize(), page.getTotal());
     }
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-import org.hashids.Hashids;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.util.ClassUtils;
 
@@ -41,6 +40,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import lombok.extern.slf4j.Slf4j;
+import top.sephy.infra.jackson.HashIdCodecRegistry;
 import top.sephy.infra.jackson.deser.CustomLocalDateDeserializer;
 import top.sephy.infra.jackson.deser.CustomLocalDateTimeDeserializer;
 import top.sephy.infra.jackson.deser.HashIdDeserializer;
@@ -80,8 +80,8 @@ public abstract class JacksonUtils {
             .serializerByType(BigDecimal.class, CustomBigDecimalSerializer.INSTANCE)
             .serializerByType(LocalDate.class, CustomLocalDateSerializer.INSTANCE)
             .deserializerByType(LocalDate.class, CustomLocalDateDeserializer.INSTANCE)
-            .serializerByType(Long.class, new HashIdSerializer(new Hashids()))
-            .deserializerByType(Long.class, new HashIdDeserializer(new Hashids()));
+            .serializerByType(Long.class, new HashIdSerializer(HashIdCodecRegistry.defaultCodec()))
+            .deserializerByType(Long.class, new HashIdDeserializer(HashIdCodecRegistry.defaultCodec()));
         if (playwrightModulePresent) {
             builder.modules(new PlaywrightModule());
         }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.utils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 属性访问器生成工具
+ * <p>
+ * 优先通过 {@link LambdaMetafactory} 将 getter/setter 方法生成为 {@link Function}/{@link BiConsumer} 实现, 调用开销与直接调用方法相当;
+ * 没有对应方法或生成失败(如跨类加载器)时退回到字段的 {@link MethodHandle} 访问。生成过程较重, 调用方应按类缓存结果。
+ */
+@Slf4j
+public abstract class LambdaAccessorUtils {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_SAM = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_SAM = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 生成属性读取函数
+     *
+     * @param clazz 目标类
+     * @param field 属性对应的字段
+     * @return 读取函数, 入参为目标对象
+     */
+    public static Function<Object, Object> getter(@NonNull Class<?> clazz, @NonNull Field field) {
+        PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(clazz, field.getName());
+        Method readMethod = pd == null ? null : pd.getReadMethod();
+        if (readMethod != null) {
+            try {
+                return compileGetter(readMethod);
+            } catch (Throwable e) {
+                log.debug("生成 {}#{} 的 getter 失败, 使用 MethodHandle 访问", clazz.getName(), readMethod.getName(), e);
+            }
+        }
+        MethodHandle handle = fieldGetter(field);
+        return target -> {
+            try {
+                return handle.invokeExact(target);
+            } catch (Throwable e) {
+                ReflectionUtils.rethrowRuntimeException(e);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * 生成 getter 方法的调用函数, 生成失败时退回到反射调用
+     *
+     * @param readMethod getter 方法
+     * @return 读取函数, 入参为目标对象
+     */
+    public static Function<Object, Object> getter(@NonNull Method readMethod) {
+        try {
+            return compileGetter(readMethod);
+        } catch (Throwable e) {
+            log.debug("生成 {}#{} 的 getter 失败, 使用反射访问", readMethod.getDeclaringClass().getName(),
+                readMethod.getName(), e);
+        }
+        ReflectionUtils.makeAccessible(readMethod);
+        return target -> ReflectionUtils.invokeMethod(readMethod, target);
+    }
+
+    /**
+     * 生成属性写入函数
+     *
+     * @param clazz 目标类
+     * @param field 属性对应的字段
+     * @return 写入函数, 入参为目标对象和属性值
+     */
+    public static BiConsumer<Object, Object> setter(@NonNull Class<?> clazz, @NonNull Field field) {
+        PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(clazz, field.getName());
+        Method writeMethod = pd == null ? null : pd.getWriteMethod();
+        if (writeMethod != null) {
+            try {
+                return compileSetter(writeMethod);
+            } catch (Throwable e) {
+                log.debug("生成 {}#{} 的 setter 失败, 使用 MethodHandle 访问", clazz.getName(), writeMethod.getName(), e);
+            }
+        }
+        MethodHandle handle = fieldSetter(field);
+        return (target, value) -> {
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable e) {
+                ReflectionUtils.rethrowRuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compileGetter(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = lookupFor(method.getDeclaringClass());
+        MethodHandle impl = lookup.unreflect(method);
+        Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType());
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+            GETTER_SAM, impl, MethodType.methodType(returnType, method.getDeclaringClass()));
+        return (Function<Object, Object>)site.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> compileSetter(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = lookupFor(method.getDeclaringClass());
+        MethodHandle impl = lookup.unreflect(method);
+        Class<?> paramType = ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0]);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+            SETTER_SAM, impl, MethodType.methodType(void.class, method.getDeclaringClass(), paramType));
+        return (BiConsumer<Object, Object>)site.getTarget().invokeExact();
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> targetClass) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(targetClass, LOOKUP);
+    }
+
+    private static MethodHandle fieldGetter(Field field) {
+        try {
+            ReflectionUtils.makeAccessible(field);
+            return LOOKUP.unreflectGetter(field).asType(GETTER_SAM);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段 " + field, e);
+        }
+    }
+
+    private static MethodHandle fieldSetter(Field field) {
+        try {
+            ReflectionUtils.makeAccessible(field);
+            return LOOKUP.unreflectSetter(field).asType(SETTER_SAM);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段 " + field, e);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.utils;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.IndexAccessor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import lombok.NonNull;
+
+/**
+ * 以方法参数为变量的 SpEL 模板求值器, 用于注解上的表达式 (如 {@code @RedisLock}, {@code @LogKeyword})
+ * <ul>
+ * <li>表达式按 (Method, 模板) 缓存, 重载方法和同一方法上的多个模板互不影响</li>
+ * <li>默认使用 {@link SpelCompilerMode#MIXED}, 表达式执行几次后编译为字节码, 编译失败时自动退回解释执行</li>
+ * <li>参数名只在第一次解析时获取, 求值时通过只读的上下文按下标读取参数, 不需要每次构建 {@link StandardEvaluationContext}</li>
+ * </ul>
+ * 模板语法为 {@code #{...}}, 方法参数通过 {@code #参数名} 引用。只有一个表达式的模板返回表达式本身的结果, 不会转换为字符串。
+ */
+public class MethodExpressionEvaluator {
+
+    public static final MethodExpressionEvaluator DEFAULT = new MethodExpressionEvaluator(SpelCompilerMode.MIXED);
+
+    private static final ParserContext PARSER_CONTEXT = new TemplateParserContext();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final ExpressionParser parser;
+
+    /**
+     * 类型转换, 方法解析等与参数无关的部分, 所有求值共享
+     */
+    private final StandardEvaluationContext shared;
+
+    private final ConcurrentHashMap<Method, ConcurrentHashMap<String, MethodExpression>> cache =
+        new ConcurrentHashMap<>(64);
+
+    public MethodExpressionEvaluator(@NonNull SpelCompilerMode compilerMode) {
+        this.parser = new SpelExpressionParser(
+            new SpelParserConfiguration(compilerMode, MethodExpressionEvaluator.class.getClassLoader()));
+        this.shared = new StandardEvaluationContext();
+        // 提前初始化, 之后只读, 多线程共享安全
+        shared.getPropertyAccessors();
+        shared.getIndexAccessors();
+        shared.getConstructorResolvers();
+        shared.getMethodResolvers();
+        shared.getTypeLocator();
+        shared.getTypeConverter();
+    }
+
+    /**
+     * 获取方法上的表达式, 参数名通过 {@link DefaultParameterNameDiscoverer} 获取
+     *
+     * @param method 方法
+     * @param template SpEL 模板
+     * @return 已解析的表达式
+     */
+    public MethodExpression get(Method method, String template) {
+        return get(method, template, () -> PARAMETER_NAME_DISCOVERER.getParameterNames(method));
+    }
+
+    /**
+     * 获取方法上的表达式
+     *
+     * @param method 方法
+     * @param template SpEL 模板
+     * @param parameterNames 参数名, 只在第一次解析时调用
+     * @return 已解析的表达式
+     */
+    public MethodExpression get(Method method, String template, Supplier<String[]> parameterNames) {
+        ConcurrentHashMap<String, MethodExpression> expressions = cache.get(method);
+        if (expressions == null) {
+            expressions = cache.computeIfAbsent(method, k -> new ConcurrentHashMap<>(4));
+        }
+        MethodExpression expression = expressions.get(template);
+        if (expression == null) {
+            expression = expressions.computeIfAbsent(template,
+                k -> new MethodExpression(parser.parseExpression(k, PARSER_CONTEXT),
+                    variableIndex(method, parameterNames.get()), shared));
+        }
+        return expression;
+    }
+
+    /**
+     * 参数名到下标的映射, 获取不到参数名时使用 p0, p1 ...
+     */
+    private static Map<String, Integer> variableIndex(Method method, String[] names) {
+        int count = method.getParameterCount();
+        Map<String, Integer> index = new HashMap<>((int)(count / 0.75f) + 1);
+        for (int i = 0; i < count; i++) {
+            String name = names != null && i < names.length && names[i] != null ? names[i] : "p" + i;
+            index.putIfAbsent(name, i);
+        }
+        return Map.copyOf(index);
+    }
+
+    /**
+     * 已解析的表达式, 线程安全
+     */
+    public static final class MethodExpression {
+
+        private final Expression expression;
+
+        private final Map<String, Integer> variableIndex;
+
+        private final StandardEvaluationContext shared;
+
+        private MethodExpression(Expression expression, Map<String, Integer> variableIndex,
+            StandardEvaluationContext shared) {
+            this.expression = expression;
+            this.variableIndex = variableIndex;
+            this.shared = shared;
+        }
+
+        public Object getValue(Object[] args) {
+            return expression.getValue(new ArgumentsContext(shared, variableIndex, args));
+        }
+
+        public <T> T getValue(Object[] args, Class<T> type) {
+            return expression.getValue(new ArgumentsContext(shared, variableIndex, args), type);
+        }
+
+        public String getExpressionString() {
+            return expression.getExpressionString();
+        }
+    }
+
+    /**
+     * 只读的求值上下文, 变量直接从参数数组中读取, 不支持赋值
+     */
+    private static final class ArgumentsContext implements EvaluationContext {
+
+        private final StandardEvaluationContext shared;
+
+        private final Map<String, Integer> variableIndex;
+
+        private final Object[] args;
+
+        private ArgumentsContext(StandardEvaluationContext shared, Map<String, Integer> variableIndex,
+            Object[] args) {
+            this.shared = shared;
+            this.variableIndex = variableIndex;
+            this.args = args;
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return shared.getPropertyAccessors();
+        }
+
+        @Override
+        public List<IndexAccessor> getIndexAccessors() {
+            return shared.getIndexAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return shared.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return shared.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return null;
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return shared.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return shared.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return shared.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return shared.getOperatorOverloader();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            throw new UnsupportedOperationException("方法参数上下文是只读的");
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            Integer i = variableIndex.get(name);
+            return i == null || args == null || i >= args.length ? null : args[i];
+        }
+
+        @Override
+        public boolean isAssignmentEnabled() {
+            return false;
+        }
+    }
+}
@@ -15,56 +15,18 @@
  */
 package top.sephy.infra.utils;
 
-import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.Signature;
-import org.aspectj.lang.reflect.CodeSignature;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.ParserContext;
-import org.springframework.expression.common.TemplateParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.aspectj.lang.reflect.MethodSignature;
 
+/**
+ * 解析切点方法上的 SpEL 模板, 方法参数通过 {@code #参数名} 引用
+ *
+ * @see MethodExpressionEvaluator
+ */
 public abstract class SpELUtils {
 
-    /**
-     * SpEL表达式解析工具
-     */
-    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
-
-    private static final ParserContext PARSER_CONTEXT = new TemplateParserContext();
-
-    /**
-     * 解析缓存
-     */
-    private static final Map<String, Expression> EXPRESSION_CACHE = new ConcurrentHashMap<>(64);
-
     public static String parse(String template, ProceedingJoinPoint joinPoint) {
-
-        final Object target = joinPoint.getTarget();
-
-        String className = target.getClass().getName();
-        final Signature signature = joinPoint.getSignature();
-        String[] paramNames = ((CodeSignature)signature).getParameterNames();
-        String methodName = signature.getName();
-        String contentKey = className + "#" + methodName;
-        final Expression contentTemplate = EXPRESSION_CACHE.computeIfAbsent(contentKey,
-            k -> EXPRESSION_PARSER.parseExpression(template, PARSER_CONTEXT));
-
-        // 将方法参数添加到上下文中
-        final Object[] paramValues = joinPoint.getArgs();
-
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        for (int i = 0; i < paramNames.length; i++) {
-            String paramName = paramNames[i];
-            Object paramValue = paramValues[i];
-            ctx.setVariable(paramName, paramValue);
-        }
-        return contentTemplate.getValue(ctx, String.class);
+        return expression(template, joinPoint).getValue(joinPoint.getArgs(), String.class);
     }
 
     /**
@@ -75,26 +37,19 @@ public abstract class SpELUtils {
      * @return 解析后的对象
      */
     public static Object parseToObject(String template, ProceedingJoinPoint joinPoint) {
+        return expression(template, joinPoint).getValue(joinPoint.getArgs());
+    }
 
-        final Object target = joinPoint.getTarget();
-
-        String className = target.getClass().getName();
-        final Signature signature = joinPoint.getSignature();
-        String[] paramNames = ((CodeSignature)signature).getParameterNames();
-        String methodName = signature.getName();
-        String contentKey = className + "#" + methodName + "#" + Arrays.toString(paramNames) + "#" + template;
-        final Expression contentTemplate = EXPRESSION_CACHE.computeIfAbsent(contentKey,
-            k -> EXPRESSION_PARSER.parseExpression(template, PARSER_CONTEXT));
-
-        // 将方法参数添加到上下文中
-        final Object[] paramValues = joinPoint.getArgs();
-
-        StandardEvaluationContext ctx = new StandardEvaluationContext();
-        for (int i = 0; i < paramNames.length; i++) {
-            String paramName = paramNames[i];
-            Object paramValue = paramValues[i];
-            ctx.setVariable(paramName, paramValue);
-        }
-        return contentTemplate.getValue(ctx);
+    /**
+     * 按 (Method, 模板) 缓存的表达式, 参数名取自切点签名
+     *
+     * @param template SpEL 表达式模板
+     * @param joinPoint AOP 连接点
+     * @return 已解析的表达式
+     */
+    public static MethodExpressionEvaluator.MethodExpression expression(String template,
+        ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature)joinPoint.getSignature();
+        return MethodExpressionEvaluator.DEFAULT.get(signature.getMethod(), template, signature::getParameterNames);
     }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.jackson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hashids.Hashids;
+import org.junit.jupiter.api.Test;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.sephy.infra.jackson.annotation.JsonHashId;
+import top.sephy.infra.utils.JacksonUtils;
+
+class HashIdCodecTest {
+
+    @Test
+    void registrySharesCodecsBySaltAndAlphabet() {
+        assertThat(HashIdCodecRegistry.get("order", "")).isSameAs(HashIdCodecRegistry.get("order", null));
+        assertThat(HashIdCodecRegistry.get("order", "")).isNotSameAs(HashIdCodecRegistry.get("user", ""));
+        assertThat(HashIdCodecRegistry.get("order", "abcdefghijklmnop"))
+            .isNotSameAs(HashIdCodecRegistry.get("order", ""));
+    }
+
+    @Test
+    void cachedCodecMatchesHashids() {
+        Hashids hashids = new Hashids("salt");
+        HashIdCodec codec = new HashIdCodec(hashids, 16);
+        for (long id = 0; id < 100; id++) {
+            String hash = codec.encode(id % 10);
+            assertThat(hash).isEqualTo(hashids.encode(id % 10));
+            assertThat(codec.decode(hash)).isEqualTo(id % 10);
+        }
+    }
+
+    @Test
+    void onlyAnnotatedLongsAreEncoded() {
+        String json = JacksonUtils.toJson(new Ids(1L, 2L));
+
+        assertThat(json).contains("\"plain\":2").doesNotContain("\"id\":1");
+        Ids ids = JacksonUtils.jsonToObject(json, Ids.class);
+        assertThat(ids.getId()).isEqualTo(1L);
+        assertThat(ids.getPlain()).isEqualTo(2L);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ids {
+
+        @JsonHashId(salt = "order")
+        private Long id;
+
+        private Long plain;
+    }
+}
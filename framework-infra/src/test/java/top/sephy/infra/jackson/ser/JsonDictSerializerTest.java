@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.jackson.ser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import top.sephy.infra.jackson.annotation.JsonDict;
+import top.sephy.infra.jackson.annotation.JsonDictMeta;
+import top.sephy.infra.option.CompositeCachedDictEntryProvider;
+import top.sephy.infra.option.DictEntry;
+import top.sephy.infra.option.DictEntryListProvider;
+import top.sephy.infra.option.MultiDictEntryListProvider;
+
+class JsonDictSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StatusProvider statusProvider;
+
+    private CompositeCachedDictEntryProvider dictEntryProvider;
+
+    @BeforeEach
+    void setUp() {
+        statusProvider = new StatusProvider();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("status", statusProvider);
+        dictEntryProvider =
+            new CompositeCachedDictEntryProvider(beanFactory.getBeanProvider(MultiDictEntryListProvider.class),
+                beanFactory.getBeanProvider(DictEntryListProvider.class));
+        dictEntryProvider.refresh();
+    }
+
+    @Test
+    void writesLabelsForScalarsAndCollections() throws Exception {
+        JsonDictSerializer serializer = serializer(jsonDict("未知", String.class));
+
+        assertThat(write(serializer, 1)).isEqualTo("{\"status\":1,\"statusLabel\":\"启用\"}");
+        assertThat(write(serializer, List.of(1, 9))).isEqualTo("{\"status\":[1,9],\"statusLabel\":[\"启用\",\"未知\"]}");
+        assertThat(write(serializer, new Object[] {2, null}))
+            .isEqualTo("{\"status\":[2,null],\"statusLabel\":[\"禁用\",\"未知\"]}");
+    }
+
+    @Test
+    void nonStringDefaultLabelIsConvertedOnce() throws Exception {
+        JsonDictSerializer serializer = serializer(jsonDict("-1", Integer.class));
+
+        assertThat(write(serializer, 9)).isEqualTo("{\"status\":9,\"statusLabel\":-1}");
+    }
+
+    @Test
+    void refreshedDictionaryIsPickedUp() throws Exception {
+        JsonDictSerializer serializer = serializer(jsonDict("", String.class));
+        assertThat(write(serializer, 1)).contains("\"启用\"");
+
+        statusProvider.version++;
+        statusProvider.options = List.of(new DictEntry<>("1", "正常", false, "status"));
+        dictEntryProvider.refresh();
+
+        assertThat(write(serializer, 1)).contains("\"正常\"");
+    }
+
+    private JsonDictSerializer serializer(JsonDict annotation) {
+        return new JsonDictSerializer(dictEntryProvider, new JsonDictMeta(annotation, "statusLabel"),
+            DefaultConversionService.getSharedInstance());
+    }
+
+    private String write(JsonDictSerializer serializer, Object value) throws Exception {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(writer)) {
+            gen.writeStartObject();
+            gen.writeFieldName("status");
+            serializer.serialize(value, gen, objectMapper.getSerializerProvider());
+            gen.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    private static JsonDict jsonDict(String defaultLabelValue, Class<?> labelClass) {
+        return new JsonDict() {
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return JsonDict.class;
+            }
+
+            @Override
+            public String type() {
+                return "status";
+            }
+
+            @Override
+            public String labelFieldName() {
+                return "";
+            }
+
+            @Override
+            public String defaultLabelValue() {
+                return defaultLabelValue;
+            }
+
+            @Override
+            public boolean compareWithString() {
+                return true;
+            }
+
+            @Override
+            public boolean caseSensitive() {
+                return false;
+            }
+
+            @Override
+            public Class<?> labelClass() {
+                return labelClass;
+            }
+        };
+    }
+
+    static class StatusProvider implements DictEntryListProvider<String, String> {
+
+        long version = 1L;
+
+        List<DictEntry<String, String>> options =
+            Arrays.asList(new DictEntry<>("1", "启用", false, "status"), new DictEntry<>("2", "禁用", false, "status"));
+
+        @Override
+        public String getType() {
+            return "status";
+        }
+
+        @Override
+        public List<DictEntry<String, String>> getOptions() {
+            return options;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void heavyHittersSurviveEviction() {
+        // 共 2500 次, 出现超过 2500 / 8 次的 key 一定会保留
+        HotKeyTracker tracker = new HotKeyTracker(8);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record("hot");
+            if (i % 2 == 0) {
+                tracker.record("warm");
+            }
+            tracker.record("cold-" + i);
+        }
+
+        assertThat(tracker.top(2)).extracting(HotKeyTracker.HotKey::key).containsExactly("hot", "warm");
+        HotKeyTracker.HotKey hot = tracker.top(1).get(0);
+        assertThat(hot.count() - hot.error()).isLessThanOrEqualTo(1000L);
+        assertThat(hot.count()).isGreaterThanOrEqualTo(1000L);
+        HotKeyTracker.HotKey warm = tracker.top(2).get(1);
+        assertThat(warm.count() - warm.error()).isLessThanOrEqualTo(500L);
+        assertThat(warm.count()).isGreaterThanOrEqualTo(500L);
+    }
+
+    @Test
+    void concurrentRecordsAcrossStripesAreNotLost() throws Exception {
+        HotKeyTracker tracker = new HotKeyTracker(1024, 8);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    tracker.record("key-" + i % 100);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(tracker.top(200)).hasSize(100)
+            .allMatch(hotKey -> hotKey.count() == 800L && hotKey.error() == 0L);
+    }
+
+    @Test
+    void resetClearsAllStripes() {
+        HotKeyTracker tracker = new HotKeyTracker(1024, 8);
+        for (int i = 0; i < 100; i++) {
+            tracker.record("key-" + i);
+        }
+
+        tracker.reset();
+        tracker.record("a");
+
+        assertThat(tracker.top(10)).containsExactly(new HotKeyTracker.HotKey("a", 1L, 0L));
+    }
+
+    @Test
+    void exactCountsWhileBelowCapacity() {
+        HotKeyTracker tracker = new HotKeyTracker(8);
+        tracker.record("a");
+        tracker.record("b");
+        tracker.record("a");
+
+        assertThat(tracker.top(8)).containsExactly(new HotKeyTracker.HotKey("a", 2L, 0L),
+            new HotKeyTracker.HotKey("b", 1L, 0L));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RedissonClient;
+
+/**
+ * 测试用的 {@link RedissonClient}, 只实现了 {@link RLock}, {@link RReadWriteLock} 和 MultiLock 的加锁/解锁方法, 锁保存在内存中,
+ * 不需要 Redis
+ * <p>
+ * 同时统计远程锁的调用次数和同时等待的线程数, 用于验证本地锁是否挡住了本地竞争者。
+ */
+public class InMemoryRedissonClient {
+
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, ReentrantReadWriteLock> readWriteLocks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger acquireCalls = new AtomicInteger();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicInteger maxWaiting = new AtomicInteger();
+
+    private final RedissonClient client = (RedissonClient)Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {RedissonClient.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getLock", "getFairLock" -> newLock((String)args[0]);
+            case "getReadWriteLock" -> newReadWriteLock((String)args[0]);
+            case "getMultiLock" -> newMultiLock((RLock[])args[0]);
+            case "shutdown" -> null;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryRedissonClient";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+
+    public RedissonClient client() {
+        return client;
+    }
+
+    /**
+     * lock/lockInterruptibly/tryLock 的调用次数
+     */
+    public int acquireCalls() {
+        return acquireCalls.get();
+    }
+
+    /**
+     * 同时在远程锁上等待的最大线程数
+     */
+    public int maxWaiting() {
+        return maxWaiting.get();
+    }
+
+    public boolean isLocked(String name) {
+        ReentrantLock lock = locks.get(name);
+        return lock != null && lock.isLocked();
+    }
+
+    public boolean isWriteLocked(String name) {
+        ReentrantReadWriteLock lock = readWriteLocks.get(name);
+        return lock != null && lock.isWriteLocked();
+    }
+
+    private RLock newLock(String name) {
+        return newLock(name, locks.computeIfAbsent(name, k -> new ReentrantLock()));
+    }
+
+    private RReadWriteLock newReadWriteLock(String name) {
+        ReentrantReadWriteLock lock = readWriteLocks.computeIfAbsent(name, k -> new ReentrantReadWriteLock());
+        RLock readLock = newLock(name, lock.readLock());
+        RLock writeLock = newLock(name, lock.writeLock());
+        return (RReadWriteLock)Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {RReadWriteLock.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "readLock" -> readLock;
+                case "writeLock" -> writeLock;
+                case "getName" -> name;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryReadWriteLock(" + name + ")";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private RLock newLock(String name, Lock lock) {
+        return (RLock)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {RLock.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "lock", "lockInterruptibly", "tryLock" -> acquire(lock, method, args);
+                case "unlock" -> {
+                    lock.unlock();
+                    yield null;
+                }
+                case "getName" -> name;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryLock(" + name + ")";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * 按数组顺序加锁, tryLock 失败时释放已经拿到的锁
+     */
+    private RLock newMultiLock(RLock[] locks) {
+        return (RLock)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {RLock.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "lock", "lockInterruptibly" -> {
+                    for (RLock lock : locks) {
+                        method.invoke(lock, args);
+                    }
+                    yield null;
+                }
+                case "tryLock" -> {
+                    for (int i = 0; i < locks.length; i++) {
+                        if (!(Boolean)method.invoke(locks[i], args)) {
+                            for (int j = i - 1; j >= 0; j--) {
+                                locks[j].unlock();
+                            }
+                            yield false;
+                        }
+                    }
+                    yield true;
+                }
+                case "unlock" -> {
+                    for (int i = locks.length - 1; i >= 0; i--) {
+                        locks[i].unlock();
+                    }
+                    yield null;
+                }
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryMultiLock";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * 租约时间被忽略, 锁一直持有到 unlock
+     */
+    private Object acquire(Lock lock, Method method, Object[] args) throws InterruptedException {
+        acquireCalls.incrementAndGet();
+        maxWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+        try {
+            switch (method.getName()) {
+                case "lock" -> lock.lock();
+                case "lockInterruptibly" -> lock.lockInterruptibly();
+                default -> {
+                    if (args == null || args.length == 0) {
+                        return lock.tryLock();
+                    }
+                    return lock.tryLock((Long)args[0], (TimeUnit)args[args.length - 1]);
+                }
+            }
+            return null;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
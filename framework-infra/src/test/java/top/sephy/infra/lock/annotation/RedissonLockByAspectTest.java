@@ -0,0 +1,245 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.lock.annotation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import top.sephy.infra.exception.SystemException;
+import top.sephy.infra.lock.HotKeyTracker;
+import top.sephy.infra.lock.InMemoryRedissonClient;
+import top.sephy.infra.lock.LocalLockTable;
+import top.sephy.infra.lock.LockMetrics;
+
+class RedissonLockByAspectTest {
+
+    private final InMemoryRedissonClient redisson = new InMemoryRedissonClient();
+
+    private final LocalLockTable localLockTable = new LocalLockTable(true);
+
+    private final RedissonLockByAspect aspect = new RedissonLockByAspect(redisson.client(), localLockTable);
+
+    @Test
+    void localContendersQueueBeforeRedis() throws Throwable {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        AtomicInteger total = new AtomicInteger();
+        ProceedingJoinPoint joinPoint = joinPoint("blockingLock", () -> {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            total.incrementAndGet();
+            inside.decrementAndGet();
+            return null;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        doWithLock(joinPoint);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(total).hasValue(400);
+        assertThat(maxInside).hasValue(1);
+        assertThat(redisson.maxWaiting()).isEqualTo(1);
+        assertThat(localLockTable.size()).isZero();
+        assertThat(redisson.isLocked("order")).isFalse();
+    }
+
+    @Test
+    void tryLockFailsLocallyWithoutCallingRedis() throws Throwable {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint holder = joinPoint("blockingLock", () -> {
+            entered.countDown();
+            release.await();
+            return "held";
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> held = executor.submit(() -> doWithLock(holder));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            int calls = redisson.acquireCalls();
+
+            Object result = aspect.doWithLock(joinPoint("tryLockOrIgnore", () -> "skipped?"));
+
+            assertThat(result).isNull();
+            assertThat(redisson.acquireCalls()).isEqualTo(calls);
+            release.countDown();
+            assertThat(held.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(localLockTable.size()).isZero();
+    }
+
+    @Test
+    void resolveKeysSortsAndDeduplicates() {
+        assertThat(RedissonLockByAspect.resolveKeys(List.of("b", "a", "b"))).containsExactly("a", "b");
+        assertThat(RedissonLockByAspect.resolveKeys(new long[] {2L, 1L})).containsExactly("1", "2");
+        assertThat(RedissonLockByAspect.resolveKeys("order")).containsExactly("order");
+        assertThatThrownBy(() -> RedissonLockByAspect.resolveKeys(List.of())).isInstanceOf(SystemException.class);
+    }
+
+    @Test
+    void collectionKeysAreLockedTogether() throws Throwable {
+        AtomicBoolean bothLocked = new AtomicBoolean();
+        ProceedingJoinPoint joinPoint = joinPoint("transfer", new String[] {"from", "to"}, new Object[] {"b", "a"}, () -> {
+            bothLocked.set(redisson.isLocked("a") && redisson.isLocked("b"));
+            return null;
+        });
+
+        aspect.doWithLock(joinPoint);
+
+        assertThat(bothLocked).isTrue();
+        assertThat(redisson.isLocked("a")).isFalse();
+        assertThat(redisson.isLocked("b")).isFalse();
+        assertThat(localLockTable.size()).isZero();
+    }
+
+    @Test
+    void readersShareTheLock() throws Throwable {
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ProceedingJoinPoint joinPoint = joinPoint("readLock", () -> {
+            bothInside.countDown();
+            return bothInside.await(5, TimeUnit.SECONDS);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> doWithLock(joinPoint));
+            Future<Object> second = executor.submit(() -> doWithLock(joinPoint));
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(true);
+            assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(true);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(redisson.isWriteLocked("stock")).isFalse();
+        assertThat(localLockTable.size()).isZero();
+    }
+
+    @Test
+    void metricsRecordAcquireHoldAndSkips() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LockMetrics metrics = new LockMetrics(registry);
+        RedissonLockByAspect measured = new RedissonLockByAspect(redisson.client(), localLockTable, metrics);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint holder = joinPoint("blockingLock", () -> {
+            entered.countDown();
+            release.await();
+            return null;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> held = executor.submit(() -> doWithLock(measured, holder));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            measured.doWithLock(joinPoint("tryLockOrIgnore", () -> "skipped?"));
+            release.countDown();
+            held.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(registry.get(LockMetrics.ACQUIRE).tags("key", "order", "outcome", "acquired").timer().count())
+            .isEqualTo(1L);
+        assertThat(registry.get(LockMetrics.ACQUIRE).tags("outcome", "failed", "mode", "trylock").timer().count())
+            .isEqualTo(1L);
+        assertThat(registry.get(LockMetrics.HOLD).tags("mode", "lock").timer().count()).isEqualTo(1L);
+        assertThat(registry.get(LockMetrics.SKIPPED).tags("mode", "trylock").counter().count()).isEqualTo(1.0);
+        assertThat(metrics.hotKeys(1)).extracting(HotKeyTracker.HotKey::key).containsExactly("order");
+    }
+
+    private Object doWithLock(ProceedingJoinPoint joinPoint) {
+        return doWithLock(aspect, joinPoint);
+    }
+
+    private static Object doWithLock(RedissonLockByAspect aspect, ProceedingJoinPoint joinPoint) {
+        try {
+            return aspect.doWithLock(joinPoint);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Body body) throws Throwable {
+        return joinPoint(methodName, new String[0], new Object[0], body);
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, String[] paramNames, Object[] args, Body body)
+        throws Throwable {
+        Method method = Arrays.stream(Locked.class.getDeclaredMethods()).filter(m -> m.getName().equals(methodName))
+            .findFirst().orElseThrow();
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn(methodName);
+        when(signature.getParameterNames()).thenReturn(paramNames);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(new Locked());
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenAnswer(invocation -> body.run());
+        return joinPoint;
+    }
+
+    @FunctionalInterface
+    interface Body {
+
+        Object run() throws Exception;
+    }
+
+    static class Locked {
+
+        @RedisLock(key = "order")
+        void blockingLock() {}
+
+        @RedisLock(key = "order", lockType = LockMode.TRYLOCK, lockWaitTime = 0, failBehavior = FailBehavior.IGNORE)
+        void tryLockOrIgnore() {}
+
+        @RedisLock(key = "#{ {#from, #to} }", keyType = KeyType.SPEL)
+        void transfer(String from, String to) {}
+
+        @RedisLock(key = "stock", kind = LockKind.READ)
+        void readLock() {}
+    }
+}
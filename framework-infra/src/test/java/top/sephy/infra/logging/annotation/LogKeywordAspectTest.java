@@ -192,6 +192,27 @@ public class LogKeywordAspectTest {
         assertThat(MDC.get("userInfo")).isNull();
     }
 
+    @Test
+    public void testNullArgumentWithPropertyReference() {
+        // When - 参数为 null 时属性引用失败, 方法仍然正常执行
+        String result = testService.processNullableUser(null);
+
+        // Then
+        assertThat(result).isEqualTo("处理完成");
+        assertThat(MDC.get("nullableUserId")).isNull();
+    }
+
+    @Test
+    public void testRepeatedInvocationsReuseMethodPlan() {
+        for (long i = 0; i < 100; i++) {
+            testService.processOrderAction(i, i + 1, "UPDATE");
+            testService.processUserWithComplexSpel(new User(i, "用户" + i));
+        }
+
+        assertThat(MDC.get("userId")).isNull();
+        assertThat(MDC.get("userInfo")).isNull();
+    }
+
     /**
      * 测试服务类
      */
@@ -236,6 +257,12 @@ public class LogKeywordAspectTest {
             return "处理完成";
         }
 
+        @LogKeyword(keyword = "nullableUserId", spel = "#{#user.id}")
+        public String processNullableUser(User user) {
+            assertThat(MDC.get("nullableUserId")).isNull();
+            return "处理完成";
+        }
+
         @LogKeyword(keyword = "userId", spel = "#{#userId}")
         @LogKeyword(keyword = "orderId", spel = "#{#orderId}")
         @LogKeyword(keyword = "action", spel = "#{#action}")
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.interceptor;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import lombok.Data;
+import top.sephy.infra.mybatis.audit.annotaton.CreatedTime;
+import top.sephy.infra.mybatis.audit.annotaton.CreatorId;
+import top.sephy.infra.mybatis.audit.annotaton.CreatorName;
+import top.sephy.infra.mybatis.audit.annotaton.ModifiedTime;
+import top.sephy.infra.mybatis.audit.annotaton.ModifierId;
+import top.sephy.infra.mybatis.audit.annotaton.ModifierName;
+
+/**
+ * 审计字段填充: 编译后的 getter/setter 与 BeanWrapper 反射写入的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoFillInterceptorBenchmark {
+
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    private final CurrentUserExtractor<Object> currentUserExtractor = new CurrentUserExtractor<>() {
+        @Override
+        public Object getCurrentUserId() {
+            return 10086;
+        }
+
+        @Override
+        public String getCurrentUserName() {
+            return "admin";
+        }
+    };
+
+    private AutoFillInterceptor interceptor;
+
+    private MappedStatement insertStatement;
+
+    @Setup
+    public void setUp() {
+        interceptor = new AutoFillInterceptor(conversionService, currentUserExtractor);
+        SqlSource sqlSource = parameterObject -> null;
+        insertStatement = new MappedStatement.Builder(new Configuration(), "AuditEntity.insert", sqlSource,
+            SqlCommandType.INSERT).build();
+        // 预热实体类的访问器缓存
+        interceptor.fillFields(insertStatement, new AuditEntity());
+    }
+
+    @Benchmark
+    public AuditEntity compiledAccessor() {
+        AuditEntity entity = new AuditEntity();
+        interceptor.fillFields(insertStatement, entity);
+        return entity;
+    }
+
+    @Benchmark
+    public AuditEntity beanWrapper() {
+        AuditEntity entity = new AuditEntity();
+        BeanWrapper beanWrapper = new BeanWrapperImpl(entity);
+        LocalDateTime now = LocalDateTime.now();
+        Object currentUserId = currentUserExtractor.getCurrentUserId();
+        String currentUserName = currentUserExtractor.getCurrentUserName();
+        setValue(beanWrapper, "createdTime", now);
+        setValue(beanWrapper, "modifiedTime", now);
+        setValue(beanWrapper, "createdBy", currentUserId);
+        setValue(beanWrapper, "createdByName", currentUserName);
+        setValue(beanWrapper, "modifiedBy", currentUserId);
+        setValue(beanWrapper, "modifiedByName", currentUserName);
+        return entity;
+    }
+
+    private void setValue(BeanWrapper beanWrapper, String propertyName, Object value) {
+        if (beanWrapper.getPropertyValue(propertyName) == null) {
+            Class<?> propertyType = beanWrapper.getPropertyType(propertyName);
+            if (propertyType != value.getClass() && conversionService.canConvert(value.getClass(), propertyType)) {
+                value = conversionService.convert(value, propertyType);
+            }
+            beanWrapper.setPropertyValue(propertyName, value);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AutoFillInterceptorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Data
+    public static class AuditEntity {
+
+        private Long id;
+
+        @CreatedTime
+        private LocalDateTime createdTime;
+
+        @ModifiedTime
+        private LocalDateTime modifiedTime;
+
+        @CreatorId
+        private Long createdBy;
+
+        @CreatorName
+        private String createdByName;
+
+        @ModifierId
+        private Long modifiedBy;
+
+        @ModifierName
+        private String modifiedByName;
+    }
+}
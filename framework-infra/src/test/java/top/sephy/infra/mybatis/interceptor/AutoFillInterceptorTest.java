@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import lombok.Data;
+import top.sephy.infra.mybatis.MyBatisConstants;
+import top.sephy.infra.mybatis.audit.annotaton.CreatedTime;
+import top.sephy.infra.mybatis.audit.annotaton.CreatorId;
+import top.sephy.infra.mybatis.audit.annotaton.CreatorName;
+import top.sephy.infra.mybatis.audit.annotaton.ModifiedTime;
+import top.sephy.infra.mybatis.audit.annotaton.ModifierId;
+import top.sephy.infra.mybatis.audit.annotaton.ModifierName;
+
+class AutoFillInterceptorTest {
+
+    private int userReads;
+
+    private final AutoFillInterceptor interceptor =
+        new AutoFillInterceptor(DefaultConversionService.getSharedInstance(), new CurrentUserExtractor<>() {
+            @Override
+            public Object getCurrentUserId() {
+                userReads++;
+                return 7;
+            }
+
+            @Override
+            public String getCurrentUserName() {
+                return "tester";
+            }
+        });
+
+    @Test
+    void insertFillsAllFieldsAndConvertsUserId() {
+        AuditEntity entity = new AuditEntity();
+
+        interceptor.fillFields(statement(SqlCommandType.INSERT), entity);
+
+        assertThat(entity.getCreatedTime()).isNotNull().isEqualTo(entity.getModifiedTime());
+        assertThat(entity.getCreatedBy()).isEqualTo(7L);
+        assertThat(entity.getModifiedBy()).isEqualTo(7L);
+        assertThat(entity.getCreatedByName()).isEqualTo("tester");
+    }
+
+    @Test
+    void updateKeepsExistingValues() {
+        LocalDateTime modifiedTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AuditEntity entity = new AuditEntity();
+        entity.setModifiedTime(modifiedTime);
+
+        interceptor.fillFields(statement(SqlCommandType.UPDATE), entity);
+
+        assertThat(entity.getModifiedTime()).isEqualTo(modifiedTime);
+        assertThat(entity.getCreatedTime()).isNull();
+        assertThat(entity.getModifiedBy()).isEqualTo(7L);
+    }
+
+    @Test
+    void batchParamSharesTimestampAndUser() throws Throwable {
+        List<AuditEntity> entityList = List.of(new AuditEntity(), new AuditEntity(), new AuditEntity());
+        MapperMethod.ParamMap<Object> paramMap = new MapperMethod.ParamMap<>();
+        paramMap.put(MyBatisConstants.PARAM_ENTITY_LIST, entityList);
+        paramMap.put("param1", entityList);
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+
+        interceptor.intercept(new Invocation(mock(Executor.class), update,
+            new Object[] {statement(SqlCommandType.INSERT), paramMap}));
+
+        assertThat(userReads).isEqualTo(1);
+        assertThat(entityList).extracting(AuditEntity::getCreatedTime).containsOnly(entityList.get(0).getCreatedTime())
+            .doesNotContainNull();
+        assertThat(entityList).extracting(AuditEntity::getCreatedBy).containsOnly(7L);
+    }
+
+    private static MappedStatement statement(SqlCommandType sqlCommandType) {
+        return new MappedStatement.Builder(new Configuration(), "AuditEntity." + sqlCommandType,
+            parameterObject -> null, sqlCommandType).build();
+    }
+
+    @Data
+    static class AuditEntity {
+
+        private Long id;
+
+        @CreatedTime
+        private LocalDateTime createdTime;
+
+        @ModifiedTime
+        private LocalDateTime modifiedTime;
+
+        @CreatorId
+        private Long createdBy;
+
+        @CreatorName
+        private String createdByName;
+
+        @ModifierId
+        private Long modifiedBy;
+
+        @ModifierName
+        private String modifiedByName;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+
+import top.sephy.infra.paging.PagingQuery;
+import top.sephy.infra.paging.PagingResult;
+
+class PagingCountInterceptorTest {
+
+    private static final Configuration CONFIGURATION = new Configuration();
+
+    private static final MappedStatement SELECT = statement("UserMapper.selectPage",
+        "SELECT id FROM t_user WHERE tenant_id = ? AND status = ?", SqlCommandType.SELECT, "tenantId", "status");
+
+    private static final MappedStatement UPDATE = statement("UserMapper.updateName",
+        "UPDATE t_user SET name = ? WHERE id = ?", SqlCommandType.UPDATE, "name", "id");
+
+    private final List<String> executed = new ArrayList<>();
+
+    private long total = 42;
+
+    private final Executor executor = executor();
+
+    @AfterEach
+    void clear() {
+        PageHelper.clearPage();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachedCountSkipsPageHelperCount() throws Throwable {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor(Duration.ofMinutes(1), 100);
+
+        Page<Object> first = select(interceptor, 1L, 1);
+        total = 7;
+        Page<Object> second = select(interceptor, 1L, 1);
+
+        assertThat(first.getTotal()).isEqualTo(42);
+        assertThat(second.getTotal()).isEqualTo(42);
+        assertThat(executed).containsExactly("count+select", "select");
+        assertThat(interceptor.getCountCacheStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void parametersOutsideConditionsArePartOfTheKey() throws Throwable {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor(Duration.ofMinutes(1), 100);
+
+        select(interceptor, 1L, 1);
+        total = 3;
+        Page<Object> otherTenant = select(interceptor, 2L, 1);
+
+        assertThat(otherTenant.getTotal()).isEqualTo(3);
+        assertThat(executed).containsExactly("count+select", "count+select");
+    }
+
+    @Test
+    void writeToQueriedTableInvalidatesCount() throws Throwable {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor(Duration.ofMinutes(1), 100);
+
+        select(interceptor, 1L, 1);
+        update(interceptor);
+        total = 43;
+        Page<Object> page = select(interceptor, 1L, 1);
+
+        assertThat(page.getTotal()).isEqualTo(43);
+        assertThat(executed).containsExactly("count+select", "update", "count+select");
+    }
+
+    @Test
+    void countCachedDuringTransactionIsInvalidatedAfterCompletion() throws Throwable {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor(Duration.ofMinutes(1), 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        update(interceptor);
+        select(interceptor, 1L, 1);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        select(interceptor, 1L, 1);
+
+        assertThat(synchronizations).hasSize(1);
+        assertThat(executed).containsExactly("update", "count+select", "count+select");
+        assertThat(TransactionSynchronizationManager.getResource(interceptor)).isNull();
+    }
+
+    @Test
+    void countIsNotCachedUnlessEnabled() throws Throwable {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor();
+
+        select(interceptor, 1L, 1);
+        select(interceptor, 1L, 1);
+
+        assertThat(executed).containsExactly("count+select", "count+select");
+    }
+
+    @Test
+    void approximateCountStopsAtCap() {
+        PagingCountInterceptor interceptor = new PagingCountInterceptor(Duration.ofMinutes(1), 100);
+        PagingQuery query = new PagingQuery();
+        query.setPageSize(10);
+
+        PagingResult<Object> result = PagingCountInterceptor.page(query, 10, () -> selectList(interceptor, 1L, 1));
+        PagingResult<Object> cached = PagingCountInterceptor.page(query, 10, () -> selectList(interceptor, 1L, 1));
+
+        assertThat(result.getTotal()).isEqualTo(10);
+        assertThat(result.isExact()).isFalse();
+        assertThat(cached.getTotal()).isEqualTo(10);
+        assertThat(cached.isExact()).isFalse();
+        assertThat(executed).containsExactly("capped count 11", "select", "select");
+    }
+
+    @Test
+    void simpleSelectCountsOnlyUpToLimit() {
+        String sql = PagingCountInterceptor
+            .cappedCountSql("SELECT id, name FROM t_user WHERE status = ? ORDER BY create_time DESC", 10001);
+
+        assertThat(sql).isEqualTo("SELECT COUNT(*) FROM (SELECT 1 FROM t_user WHERE status = ? LIMIT 10001) tmp_count");
+    }
+
+    @Test
+    void groupedSelectIsWrapped() {
+        String sql = PagingCountInterceptor.cappedCountSql("SELECT status, COUNT(*) FROM t_user GROUP BY status", 11);
+
+        assertThat(sql)
+            .isEqualTo("SELECT COUNT(*) FROM (SELECT status, COUNT(*) FROM t_user GROUP BY status LIMIT 11) tmp_count");
+    }
+
+    @Test
+    void selectWithLimitIsNestedTwice() {
+        String sql = PagingCountInterceptor.cappedCountSql("SELECT id FROM t_user LIMIT 100", 11);
+
+        assertThat(sql).isEqualTo(
+            "SELECT COUNT(*) FROM (SELECT 1 FROM (SELECT id FROM t_user LIMIT 100) tmp_rows LIMIT 11) tmp_count");
+    }
+
+    private Page<Object> select(PagingCountInterceptor interceptor, Long tenantId, int status) throws Throwable {
+        Page<Object> page = PageHelper.startPage(1, 10);
+        try {
+            interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class,
+                    ResultHandler.class),
+                new Object[] {SELECT, queryParam(tenantId, status), RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER}));
+            return page;
+        } finally {
+            PageHelper.clearPage();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> selectList(PagingCountInterceptor interceptor, Long tenantId, int status) {
+        try {
+            return (List<Object>)interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class,
+                    ResultHandler.class),
+                new Object[] {SELECT, queryParam(tenantId, status), RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER}));
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void update(PagingCountInterceptor interceptor) throws Throwable {
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("name", "tom");
+        param.put("id", 1L);
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        interceptor.intercept(new Invocation(executor, update, new Object[] {UPDATE, param}));
+    }
+
+    private static MapperMethod.ParamMap<Object> queryParam(Long tenantId, int status) {
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("tenantId", tenantId);
+        param.put("status", status);
+        param.put(QueryConditionExtractorInterceptor.EXPRESSIONS, List.of());
+        return param;
+    }
+
+    /**
+     * 模拟 PageHelper: 需要 count 时设置总数, 计数语句返回 上限+1
+     */
+    private Executor executor() {
+        SimpleExecutor keys = new SimpleExecutor(CONFIGURATION, null);
+        Executor executor = mock(Executor.class);
+        try {
+            when(executor.createCacheKey(any(), any(), any(), any())).thenAnswer(
+                i -> keys.createCacheKey(i.getArgument(0), i.getArgument(1), i.getArgument(2), i.getArgument(3)));
+            when(executor.query(any(), any(), any(), any())).thenAnswer(i -> {
+                Page<Object> page = PageHelper.getLocalPage();
+                if (page != null && page.isCount()) {
+                    page.setTotal(total);
+                    executed.add("count+select");
+                } else {
+                    executed.add("select");
+                }
+                return List.of();
+            });
+            when(executor.query(any(), any(), any(), any(), any(CacheKey.class), any(BoundSql.class))).thenAnswer(i -> {
+                String sql = ((BoundSql)i.getArgument(5)).getSql();
+                executed.add("capped count " + sql.replaceAll(".* LIMIT (\\d+).*", "$1"));
+                return List.of(11L);
+            });
+            when(executor.update(any(), any())).thenAnswer(i -> {
+                executed.add("update");
+                return 1;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return executor;
+    }
+
+    private static MappedStatement statement(String id, String sql, SqlCommandType type, String... params) {
+        List<ParameterMapping> mappings = new ArrayList<>();
+        for (String param : params) {
+            mappings.add(new ParameterMapping.Builder(CONFIGURATION, param, Object.class).build());
+        }
+        return new MappedStatement.Builder(CONFIGURATION, id, new StaticSqlSource(CONFIGURATION, sql, mappings), type)
+            .resultMaps(List.of(new ResultMap.Builder(CONFIGURATION, id + "-result", Long.class, List.of()).build()))
+            .build();
+    }
+}
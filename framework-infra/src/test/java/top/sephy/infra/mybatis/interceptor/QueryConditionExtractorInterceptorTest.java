@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import top.sephy.infra.mybatis.query.DefaultQueryContextExtractor;
+import top.sephy.infra.paging.QueryObject;
+
+class QueryConditionExtractorInterceptorTest {
+
+    private static final Configuration CONFIGURATION = new Configuration();
+
+    private static final SqlSource SQL_SOURCE = new XMLLanguageDriver().createSqlSource(CONFIGURATION,
+        "<script>select * from t_user<where>${_whereSql}</where></script>", Object.class);
+
+    private final QueryConditionExtractorInterceptor interceptor =
+        new QueryConditionExtractorInterceptor(new DefaultQueryContextExtractor(true));
+
+    @Test
+    void sameFieldInTwoQueryObjectsBindsItsOwnValue() throws Throwable {
+        UserQuery left = new UserQuery();
+        left.setStatus(1);
+        UserQuery right = new UserQuery();
+        right.setStatus(2);
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("left", left);
+        param.put("right", right);
+        param.put("param1", left);
+        param.put("param2", right);
+
+        BoundSql boundSql = intercept(param);
+
+        assertThat(boundSql.getSql()).isEqualTo("select * from t_user WHERE status = ? AND status = ?");
+        assertThat(boundSql.getParameterMappings()).extracting(ParameterMapping::getProperty)
+            .containsExactlyInAnyOrder("_whereValues.left.status", "_whereValues.right.status");
+        assertThat(boundValues(boundSql, param)).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void aliasedQueryObjectIsExtractedOnce() throws Throwable {
+        UserQuery query = new UserQuery();
+        query.setStatus(1);
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("query", query);
+        param.put("param1", query);
+        param.put("tenantId", 9L);
+        param.put("param2", 9L);
+
+        BoundSql boundSql = intercept(param);
+
+        assertThat(boundSql.getSql()).isEqualTo("select * from t_user WHERE status = ?");
+        assertThat(boundSql.getParameterMappings()).extracting(ParameterMapping::getProperty)
+            .containsExactly("_whereValues.query.status");
+        assertThat(boundValues(boundSql, param)).containsExactly(1);
+    }
+
+    private BoundSql intercept(MapperMethod.ParamMap<Object> param) throws Throwable {
+        MappedStatement statement =
+            new MappedStatement.Builder(CONFIGURATION, "select", SQL_SOURCE, SqlCommandType.SELECT).build();
+        Object[] args = {statement, param, RowBounds.DEFAULT, null};
+        interceptor.intercept(new Invocation(mock(Executor.class), Executor.class.getMethod("query",
+            MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class), args));
+        return statement.getBoundSql(args[1]);
+    }
+
+    private static List<Object> boundValues(BoundSql boundSql, Object param) {
+        MetaObject metaObject = CONFIGURATION.newMetaObject(param);
+        return boundSql.getParameterMappings().stream().map(ParameterMapping::getProperty)
+            .map(metaObject::getValue).toList();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class UserQuery extends QueryObject {
+
+        private Integer status;
+    }
+}
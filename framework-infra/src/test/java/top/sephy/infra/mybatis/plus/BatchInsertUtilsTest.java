@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class BatchInsertUtilsTest {
+
+    private final List<String> rows = IntStream.range(0, 10).mapToObj(i -> "row" + i).toList();
+
+    @Test
+    void partitionsByRows() {
+        List<List<String>> chunks = BatchInsertUtils.partition(rows, BatchInsertOptions.ofRows(4));
+
+        assertThat(chunks).extracting(List::size).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    void partitionsByBytes() {
+        BatchInsertOptions options = BatchInsertOptions.ofBytes(100, 10, row -> 4);
+
+        assertThat(BatchInsertUtils.partition(rows, options)).extracting(List::size).containsExactly(2, 2, 2, 2, 2);
+    }
+
+    @Test
+    void concurrentChunksUseSeveralThreads() {
+        BatchInsertOptions options = BatchInsertOptions.ofRows(1);
+        options.setConcurrency(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        BatchInsertResult result = BatchInsertUtils.insert(rows, options, chunk -> {
+            threads.add(Thread.currentThread().getName());
+            return chunk.size();
+        });
+
+        assertThat(result.rows()).isEqualTo(10);
+        assertThat(result.chunks()).isEqualTo(10);
+        assertThat(threads).hasSize(3).allMatch(name -> name.startsWith("batch-insert-"));
+    }
+
+    @Test
+    void failureIsThrownOnlyAfterAllLanesStopped() throws Exception {
+        BatchInsertOptions options = BatchInsertOptions.ofRows(1);
+        options.setConcurrency(2);
+        CountDownLatch otherLaneStarted = new CountDownLatch(1);
+        CountDownLatch failedLatch = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger inserted = new AtomicInteger();
+
+        assertThatThrownBy(() -> BatchInsertUtils.insert(rows, options, chunk -> {
+            running.incrementAndGet();
+            try {
+                if (chunk.get(0).equals("row0")) {
+                    otherLaneStarted.await(1, TimeUnit.SECONDS);
+                    failedLatch.countDown();
+                    throw new IllegalStateException("boom");
+                }
+                // 另一条流水线在失败之后仍在执行当前批次
+                otherLaneStarted.countDown();
+                failedLatch.await(1, TimeUnit.SECONDS);
+                Thread.sleep(100);
+                inserted.incrementAndGet();
+                return 1;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(running).hasValue(0);
+        assertThat(inserted).hasValue(1);
+    }
+}
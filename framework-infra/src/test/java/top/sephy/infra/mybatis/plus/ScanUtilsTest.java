@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.junit.jupiter.api.Test;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+class ScanUtilsTest {
+
+    @Test
+    void scanDeliversBoundedBatches() {
+        List<List<Integer>> batches = new ArrayList<>();
+
+        long total = ScanUtils.<Integer>scan(handler -> {
+            DefaultResultContext<Integer> context = new DefaultResultContext<>();
+            for (int i = 0; i < 7; i++) {
+                context.nextResultObject(i);
+                handler.handleResult(context);
+            }
+        }, 3, batches::add);
+
+        assertThat(total).isEqualTo(7);
+        assertThat(batches).containsExactly(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6));
+    }
+
+    @Test
+    void emptyScanDeliversNothing() {
+        List<List<Integer>> batches = new ArrayList<>();
+
+        assertThat(ScanUtils.<Integer>scan(handler -> {}, 3, batches::add)).isZero();
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchesClosesCursor() throws Exception {
+        Cursor<Integer> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(IntStream.range(0, 5).boxed().iterator());
+
+        List<List<Integer>> batches;
+        try (Stream<List<Integer>> stream = ScanUtils.batches(cursor, 2)) {
+            batches = stream.collect(Collectors.toList());
+        }
+
+        assertThat(batches).containsExactly(List.of(0, 1), List.of(2, 3), List.of(4));
+        verify(cursor).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keysetNestsConditionBeforeKeyRange() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        assistant.setCurrentNamespace("ScanRowMapper");
+        TableInfoHelper.initTableInfo(assistant, ScanRow.class);
+        List<ScanRow> rows = List.of(new ScanRow(1L), new ScanRow(2L), new ScanRow(3L));
+        List<String> segments = new ArrayList<>();
+        CustomBaseMapper<ScanRow> mapper = mock(CustomBaseMapper.class);
+        when(mapper.selectList(any())).thenAnswer(invocation -> {
+            QueryWrapper<ScanRow> wrapper = invocation.getArgument(0);
+            segments.add(wrapper.getSqlSegment().replaceAll("#\\{[^}]+}", "?"));
+            Page<ScanRow> page = PageHelper.getLocalPage();
+            int from = segments.size() == 1 ? 0 : 2;
+            page.addAll(rows.subList(from, Math.min(from + 2, rows.size())));
+            return page;
+        });
+
+        long total = ScanUtils.scanByKeyset(mapper, ScanRow.class, w -> w.eq("status", 1).or().eq("name", "x"), 2,
+            batch -> {});
+
+        assertThat(total).isEqualTo(3);
+        assertThat(segments).containsExactly("((status = ? OR name = ?)) ORDER BY id ASC",
+            "((status = ? OR name = ?) AND id > ?) ORDER BY id ASC");
+    }
+
+    @Data
+    @AllArgsConstructor
+    @TableName("scan_row")
+    static class ScanRow {
+
+        @TableId
+        private Long id;
+    }
+}
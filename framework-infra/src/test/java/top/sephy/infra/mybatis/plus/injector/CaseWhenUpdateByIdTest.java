@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.injector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.sephy.infra.mybatis.plus.CustomBaseMapper;
+
+class CaseWhenUpdateByIdTest {
+
+    private static final MybatisConfiguration CONFIGURATION = new MybatisConfiguration();
+
+    @BeforeAll
+    static void inject() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(CONFIGURATION, "");
+        assistant.setCurrentNamespace(ProductMapper.class.getName());
+        TableInfo tableInfo = TableInfoHelper.initTableInfo(assistant, Product.class);
+        new CaseWhenUpdateById().inject(assistant, ProductMapper.class, Product.class, tableInfo);
+
+        MapperBuilderAssistant auditAssistant = new MapperBuilderAssistant(CONFIGURATION, "");
+        auditAssistant.setCurrentNamespace(AuditedMapper.class.getName());
+        new CaseWhenUpdateById().inject(auditAssistant, AuditedMapper.class, Audited.class,
+            TableInfoHelper.initTableInfo(auditAssistant, Audited.class));
+    }
+
+    @Test
+    void rendersOneWhenPerNonNullColumn() {
+        BoundSql boundSql = render(new Product(1L, "apple", null, 3), new Product(2L, null, 20, 5));
+
+        assertThat(normalize(boundSql.getSql())).isEqualTo("UPDATE t_product SET"
+            + " name = CASE id WHEN NULL THEN name WHEN ? THEN ? ELSE name END,"
+            + " stock = CASE id WHEN NULL THEN stock WHEN ? THEN ? ELSE stock END,"
+            + " version = version + 1"
+            + " WHERE (id,version) IN ( (?,?) , (?,?) )");
+        assertThat(boundValues(boundSql)).containsExactly(1L, "apple", 2L, 20, 1L, 3, 2L, 5);
+    }
+
+    @Test
+    void keepsCaseValidWhenAColumnIsNullForEveryEntity() {
+        BoundSql boundSql = render(new Product(1L, null, null, 3));
+
+        assertThat(normalize(boundSql.getSql())).isEqualTo("UPDATE t_product SET"
+            + " name = CASE id WHEN NULL THEN name ELSE name END,"
+            + " stock = CASE id WHEN NULL THEN stock ELSE stock END,"
+            + " version = version + 1"
+            + " WHERE (id,version) IN ( (?,?) )");
+    }
+
+    @Test
+    void entityWithoutIdSetsNothing() {
+        BoundSql boundSql = render(new Product(null, "ghost", 1, 0), new Product(2L, "pear", null, 1));
+
+        assertThat(normalize(boundSql.getSql())).isEqualTo("UPDATE t_product SET"
+            + " name = CASE id WHEN NULL THEN name WHEN ? THEN ? ELSE name END,"
+            + " stock = CASE id WHEN NULL THEN stock ELSE stock END,"
+            + " version = version + 1"
+            + " WHERE (id,version) IN ( (?,?) , (?,?) )");
+        assertThat(boundValues(boundSql)).containsExactly(2L, "pear", null, 0, 2L, 1);
+    }
+
+    @Test
+    void followsFieldUpdateStrategies() {
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("entityList", List.of(new Audited(1L, "tom", "", null, "a"), new Audited(2L, "amy", "b", 3, null)));
+        BoundSql boundSql = CONFIGURATION
+            .getMappedStatement(AuditedMapper.class.getName() + "." + CaseWhenUpdateById.METHOD).getBoundSql(param);
+
+        // NEVER 的 creator 不更新, NOT_EMPTY 跳过空字符串, update 表达式代替参数, ALWAYS 的 null 也会更新
+        assertThat(normalize(boundSql.getSql())).isEqualTo("UPDATE t_audited SET"
+            + " remark = CASE id WHEN NULL THEN remark WHEN ? THEN ? ELSE remark END,"
+            + " hits = CASE id WHEN NULL THEN hits WHEN ? THEN hits + 1 ELSE hits END,"
+            + " memo = CASE id WHEN NULL THEN memo WHEN ? THEN ? WHEN ? THEN ? ELSE memo END"
+            + " WHERE id IN ( ? , ? )");
+        assertThat(boundValues(boundSql)).containsExactly(2L, "b", 2L, 1L, "a", 2L, null, 1L, 2L);
+    }
+
+    @Test
+    void batchUpdateRunsOneStatementPerChunk() {
+        ProductMapper mapper = mock(ProductMapper.class, CALLS_REAL_METHODS);
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            int size = invocation.<Collection<?>>getArgument(0).size();
+            chunkSizes.add(size);
+            return size;
+        }).when(mapper).caseWhenUpdateById(anyCollection());
+        List<Product> products = LongStream.range(0, 7).mapToObj(id -> new Product(id, "p" + id, null, 0)).toList();
+
+        assertThat(mapper.batchUpdateByIdCaseWhen(products, 3)).isEqualTo(7);
+        assertThat(chunkSizes).containsExactly(3, 3, 1);
+    }
+
+    private static BoundSql render(Product... products) {
+        MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+        param.put("entityList", List.of(products));
+        return CONFIGURATION.getMappedStatement(ProductMapper.class.getName() + "." + CaseWhenUpdateById.METHOD)
+            .getBoundSql(param);
+    }
+
+    private static List<Object> boundValues(BoundSql boundSql) {
+        return boundSql.getParameterMappings().stream().map(ParameterMapping::getProperty)
+            .map(boundSql::getAdditionalParameter).toList();
+    }
+
+    private static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    interface ProductMapper extends CustomBaseMapper<Product> {
+    }
+
+    interface AuditedMapper extends CustomBaseMapper<Audited> {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @TableName("t_audited")
+    static class Audited {
+
+        @TableId
+        private Long id;
+
+        @TableField(updateStrategy = FieldStrategy.NEVER)
+        private String creator;
+
+        @TableField(updateStrategy = FieldStrategy.NOT_EMPTY)
+        private String remark;
+
+        @TableField(update = "%s + 1")
+        private Integer hits;
+
+        @TableField(updateStrategy = FieldStrategy.ALWAYS)
+        private String memo;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @TableName("t_product")
+    static class Product {
+
+        @TableId
+        private Long id;
+
+        private String name;
+
+        private Integer stock;
+
+        @Version
+        private Integer version;
+    }
+}
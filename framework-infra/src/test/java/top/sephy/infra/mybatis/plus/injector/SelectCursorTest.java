@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.injector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.junit.jupiter.api.Test;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+
+import lombok.Data;
+import top.sephy.infra.mybatis.plus.CustomBaseMapper;
+import top.sephy.infra.mybatis.plus.CustomerSqlInjector;
+
+class SelectCursorTest {
+
+    @Test
+    void defaultFetchSizeIsAcceptedByEveryDriver() {
+        MappedStatement statement = inject(new CustomerSqlInjector());
+
+        assertThat(statement.getFetchSize()).isEqualTo(SelectCursor.DEFAULT_FETCH_SIZE).isPositive();
+        assertThat(statement.getResultSetType()).isEqualTo(ResultSetType.FORWARD_ONLY);
+    }
+
+    @Test
+    void mysqlStreamingIsOptIn() {
+        MappedStatement statement = inject(new CustomerSqlInjector(SelectCursor.MYSQL_STREAMING_FETCH_SIZE));
+
+        assertThat(statement.getFetchSize()).isEqualTo(Integer.MIN_VALUE);
+    }
+
+    private static MappedStatement inject(CustomerSqlInjector injector) {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        assistant.setCurrentNamespace(ItemMapper.class.getName());
+        TableInfoHelper.remove(Item.class);
+        injector.getMethodList(ItemMapper.class, TableInfoHelper.initTableInfo(assistant, Item.class)).stream()
+            .filter(SelectCursor.class::isInstance)
+            .forEach(method -> method.inject(assistant, ItemMapper.class, Item.class,
+                TableInfoHelper.getTableInfo(Item.class)));
+        return configuration.getMappedStatement(ItemMapper.class.getName() + "." + SelectCursor.METHOD);
+    }
+
+    interface ItemMapper extends CustomBaseMapper<Item> {
+    }
+
+    @Data
+    @TableName("t_item")
+    static class Item {
+
+        @TableId
+        private Long id;
+
+        private String name;
+    }
+}
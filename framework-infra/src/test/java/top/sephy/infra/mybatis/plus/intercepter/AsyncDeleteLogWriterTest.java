@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncDeleteLogWriterTest {
+
+    private final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+    @Test
+    void flushesQueuedRecordsInMultiRowBatchesOnStop() throws Exception {
+        AsyncDeleteLogWriter writer = new AsyncDeleteLogWriter(dataSource());
+        writer.setTarget("delete_log", List.of("table_name", "data_id", "content"));
+        writer.setBatchSize(2);
+        writer.start();
+
+        writer.submit(IntStream.range(0, 5).mapToObj(i -> new DeleteLogRecord("user", i, "{}", null)).toList());
+        writer.stop();
+
+        assertThat(writer.getPendingCount()).isZero();
+        assertThat(executedSql).isNotEmpty().allMatch(sql -> sql.startsWith(
+            "INSERT INTO delete_log (table_name, data_id, content) VALUES (?, ?, ?)"));
+        assertThat(executedSql.stream().mapToInt(sql -> sql.split("\\), \\(").length).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void writesDirectlyWhenNotRunning() throws Exception {
+        AsyncDeleteLogWriter writer = new AsyncDeleteLogWriter(dataSource());
+        writer.setTarget("delete_log", List.of("table_name", "data_id", "content", "operator"));
+
+        writer.submit(List.of(new DeleteLogRecord("user", 1, "{}", 7), new DeleteLogRecord("user", 2, "{}", 7)));
+
+        assertThat(executedSql).containsExactly(
+            "INSERT INTO delete_log (table_name, data_id, content, operator) VALUES (?, ?, ?, ?), (?, ?, ?, ?)");
+    }
+
+    @Test
+    void recordsSubmittedWhileStoppingAreNotLost() throws Exception {
+        AsyncDeleteLogWriter writer = new AsyncDeleteLogWriter(dataSource(), 4);
+        writer.setTarget("delete_log", List.of("table_name", "data_id", "content"));
+        writer.setOverflowPolicy(AsyncDeleteLogWriter.OverflowPolicy.BLOCK);
+        writer.setBatchSize(3);
+        writer.start();
+
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 50; i++) {
+                    writer.submit(IntStream.range(0, 5).mapToObj(id -> new DeleteLogRecord("user", id, "{}", null))
+                        .toList());
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        started.await();
+        writer.stop();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        assertThat(writer.getPendingCount()).isZero();
+        assertThat(executedSql.stream().mapToInt(sql -> sql.split("\\), \\(").length).sum()).isEqualTo(1000);
+    }
+
+    @Test
+    void failedChunkRollsBackAndCountsDroppedRecords() throws Exception {
+        Connection connection = failingConnection(false);
+        AsyncDeleteLogWriter writer = new AsyncDeleteLogWriter(dataSource(connection));
+        AtomicInteger dropped = new AtomicInteger();
+        writer.setTarget("delete_log", List.of("table_name", "data_id", "content"));
+        writer.setMetrics(droppedCounter(dropped));
+        writer.setBatchSize(2);
+
+        writer.submit(IntStream.range(0, 5).mapToObj(i -> new DeleteLogRecord("user", i, "{}", null)).toList());
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        assertThat(dropped).hasValue(5);
+    }
+
+    @Test
+    void autoCommitFailureCountsOnlyUnwrittenRecords() throws Exception {
+        Connection connection = failingConnection(true);
+        AsyncDeleteLogWriter writer = new AsyncDeleteLogWriter(dataSource(connection));
+        AtomicInteger dropped = new AtomicInteger();
+        writer.setTarget("delete_log", List.of("table_name", "data_id", "content"));
+        writer.setMetrics(droppedCounter(dropped));
+        writer.setBatchSize(2);
+
+        writer.submit(IntStream.range(0, 5).mapToObj(i -> new DeleteLogRecord("user", i, "{}", null)).toList());
+
+        verify(connection, never()).rollback();
+        assertThat(dropped).hasValue(3);
+    }
+
+    /**
+     * 第二个分批写入失败
+     */
+    private static Connection failingConnection(boolean autoCommit) throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(autoCommit);
+        PreparedStatement ok = mock(PreparedStatement.class);
+        PreparedStatement failing = mock(PreparedStatement.class);
+        when(failing.executeUpdate()).thenThrow(new SQLException("boom"));
+        when(connection.prepareStatement(anyString())).thenReturn(ok, failing);
+        return connection;
+    }
+
+    private static DeleteLogMetrics droppedCounter(AtomicInteger dropped) {
+        return new DeleteLogMetrics() {
+            @Override
+            public void recordArchive(String mappedStatementId, String tableName, int rows, long costNanos) {
+            }
+
+            @Override
+            public void recordDropped(String tableName, int rows) {
+                dropped.addAndGet(rows);
+            }
+        };
+    }
+
+    private static DataSource dataSource(Connection connection) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private DataSource dataSource() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            executedSql.add(invocation.getArgument(0));
+            return mock(PreparedStatement.class);
+        });
+        return dataSource;
+    }
+}
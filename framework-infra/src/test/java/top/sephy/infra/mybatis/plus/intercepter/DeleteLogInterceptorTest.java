@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.plus.intercepter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+
+import lombok.Data;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.delete.Delete;
+import top.sephy.infra.mybatis.exception.DataUpdateLimitationException;
+
+class DeleteLogInterceptorTest {
+
+    private static final MybatisConfiguration CONFIGURATION = new MybatisConfiguration();
+
+    private static final String DELETE_SQL = "DELETE FROM del_user WHERE id = ?";
+
+    private final List<String> preparedSql = new CopyOnWriteArrayList<>();
+
+    private final List<PreparedStatement> statements = new CopyOnWriteArrayList<>();
+
+    private int archivedRows = 1;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(CONFIGURATION, "");
+        assistant.setCurrentNamespace("DelUserMapper");
+        TableInfoHelper.initTableInfo(assistant, DelUser.class);
+    }
+
+    @Test
+    void operatorIsBoundAsParameterSoThePlanIsSharedAcrossUsers() throws Exception {
+        List<Object> operators = new ArrayList<>(List.of(1L, "o'brien"));
+        DeleteLogInterceptor interceptor = new DeleteLogInterceptor();
+        interceptor.setOperator("operator", () -> operators.remove(0));
+        Connection connection = connection();
+
+        delete(interceptor, connection, 5L);
+        delete(interceptor, connection, 6L);
+
+        assertThat(preparedSql).hasSize(2).containsOnly(preparedSql.get(0));
+        assertThat(preparedSql.get(0)).startsWith("INSERT INTO delete_log (table_name, data_id, content, operator)")
+            .contains(", ? FROM del_user WHERE id = ?").doesNotContain("o'brien");
+        assertThat(interceptor.getPlanCacheStats().missCount()).isEqualTo(1);
+        assertThat(interceptor.getPlanCacheStats().hitCount()).isEqualTo(1);
+        verify(statements.get(0)).setLong(1, 1L);
+        verify(statements.get(0)).setLong(2, 5L);
+        verify(statements.get(1)).setString(1, "o'brien");
+        verify(statements.get(1)).setLong(2, 6L);
+    }
+
+    @Test
+    void limitProbePassesUnderAndAtTheLimitWithoutCountQuery() throws Exception {
+        DeleteLogInterceptor interceptor = limitedInterceptor();
+        Connection connection = connection();
+
+        archivedRows = 2;
+        delete(interceptor, connection, 5L);
+        archivedRows = 3;
+        delete(interceptor, connection, 6L);
+
+        assertThat(preparedSql).hasSize(2).allMatch(sql -> sql.startsWith("INSERT INTO delete_log")
+            && sql.endsWith("FROM del_user WHERE id = ? LIMIT 4"));
+    }
+
+    @Test
+    void limitProbeRejectsDeleteOverTheLimit() throws Exception {
+        DeleteLogInterceptor interceptor = limitedInterceptor();
+        archivedRows = 4;
+
+        assertThatThrownBy(() -> delete(interceptor, connection(), 5L))
+            .isInstanceOf(DataUpdateLimitationException.class).hasMessageContaining("limit=3, count=4");
+    }
+
+    @Test
+    void limitProbeRejectsBeforeHandingRecordsToAsyncWriter() throws Exception {
+        DeleteLogInterceptor interceptor = limitedInterceptor();
+        AsyncDeleteLogWriter writer = mock(AsyncDeleteLogWriter.class);
+        interceptor.setAsyncArchive(DeleteLogDurability.ASYNC, writer);
+        archivedRows = 4;
+
+        assertThatThrownBy(() -> delete(interceptor, connection(), 5L))
+            .isInstanceOf(DataUpdateLimitationException.class);
+        assertThat(preparedSql).singleElement().asString().startsWith("SELECT").endsWith("LIMIT 4");
+        verify(writer, never()).submit(any());
+    }
+
+    @Test
+    void limitProbeKeepsTheLimitOfTheDeleteStatement() throws Exception {
+        DeleteLogInterceptor interceptor = limitedInterceptor();
+        Connection connection = connection();
+        ParameterMapping name = new ParameterMapping.Builder(CONFIGURATION, "name", String.class).build();
+        ParameterMapping rows = new ParameterMapping.Builder(CONFIGURATION, "rows", Integer.class).build();
+        Map<String, Object> param = Map.of("name", "tom", "rows", 2);
+
+        delete(interceptor, connection, "DELETE FROM del_user WHERE name = ? ORDER BY id LIMIT ?", param, name, rows);
+        delete(interceptor, connection, "DELETE FROM del_user WHERE name = ? ORDER BY id LIMIT 2", param, name);
+        delete(interceptor, connection, "DELETE FROM del_user WHERE name = ? ORDER BY id LIMIT 10", param, name);
+
+        assertThat(preparedSql).extracting(sql -> sql.substring(sql.indexOf(" WHERE "))).containsExactly(
+            " WHERE name = ? ORDER BY id LIMIT ?", " WHERE name = ? ORDER BY id LIMIT 2",
+            " WHERE name = ? ORDER BY id LIMIT 4");
+        verify(statements.get(0)).setString(1, "tom");
+        verify(statements.get(0)).setInt(2, 2);
+    }
+
+    private DeleteLogInterceptor limitedInterceptor() {
+        DeleteLogInterceptor interceptor = new DeleteLogInterceptor();
+        interceptor.setBatchUpdateLimitationOpened(true);
+        interceptor.setDefaultBatchUpdateLimit(3);
+        return interceptor;
+    }
+
+    private void delete(DeleteLogInterceptor interceptor, Connection connection, Object id) throws Exception {
+        delete(interceptor, connection, DELETE_SQL, id,
+            new ParameterMapping.Builder(CONFIGURATION, "id", Long.class).build());
+    }
+
+    private void delete(DeleteLogInterceptor interceptor, Connection connection, String sql, Object parameterObject,
+        ParameterMapping... parameterMappings) throws Exception {
+        MappedStatement ms = new MappedStatement.Builder(CONFIGURATION, "DelUserMapper.delete",
+            parameter -> null, SqlCommandType.DELETE).build();
+        BoundSql boundSql = new BoundSql(CONFIGURATION, sql, List.of(parameterMappings), parameterObject);
+        interceptor.processDelete((Delete)CCJSqlParserUtil.parse(sql), ms, boundSql, connection);
+    }
+
+    private Connection connection() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            preparedSql.add(invocation.getArgument(0));
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.executeUpdate()).thenAnswer(i -> archivedRows);
+            when(statement.executeQuery()).thenAnswer(i -> resultSet(archivedRows));
+            statements.add(statement);
+            return statement;
+        });
+        return connection;
+    }
+
+    private static ResultSet resultSet(int rows) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] cursor = {0};
+        when(resultSet.next()).thenAnswer(i -> cursor[0]++ < rows);
+        return resultSet;
+    }
+
+    @Data
+    @TableName("del_user")
+    static class DelUser {
+
+        @TableId
+        private Long id;
+
+        private String name;
+    }
+}
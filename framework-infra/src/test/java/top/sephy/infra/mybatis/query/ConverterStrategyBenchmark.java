@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.query;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 各 {@link ConverterStrategy} 的转换开销, 字符串类策略使用字符串输入, 日期类策略使用 {@link Date} 输入
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterStrategyBenchmark {
+
+    @Param({"RETAIN_VALUE", "TRIM_STRING_TO_NULL", "LEFT_LIKE_STRING", "RIGHT_LIKE_STRING", "LIKE_STRING",
+        "TO_DATETIME", "TO_DATE_END", "TO_DATE_START", "TO_DIM_DATE", "TO_EPOCH_DAY", "TO_EPOCH_SECOND", "DEFAULT"})
+    private String strategyName;
+
+    @Param({"STRING", "DATE", "LOCAL_DATE_TIME"})
+    private String inputType;
+
+    private ConverterStrategy strategy;
+
+    private Object input;
+
+    private final ZoneId zoneId = ZoneId.of("Asia/Shanghai");
+
+    private final Date date = new Date();
+
+    @Setup
+    public void setUp() {
+        strategy = ConverterStrategy.valueOf(strategyName);
+        input = switch (inputType) {
+            case "STRING" -> "  keyword  ";
+            case "DATE" -> date;
+            default -> LocalDateTime.now();
+        };
+        if (input instanceof String && strategy.name().startsWith("TO_")) {
+            // 日期类策略不支持字符串, 改用日期输入
+            input = date;
+        }
+    }
+
+    @Benchmark
+    public Object convert() {
+        return strategy.convert(input, zoneId);
+    }
+
+    /**
+     * 原 TO_DIM_DATE 实现, 作为对照
+     */
+    @Benchmark
+    public Object legacyDimDate() {
+        return Integer.valueOf(new SimpleDateFormat("yyyyMMdd").format(date));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConverterStrategyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
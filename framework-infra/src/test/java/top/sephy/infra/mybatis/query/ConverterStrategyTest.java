@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class ConverterStrategyTest {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+    /**
+     * 2024-01-01T23:30:00+08:00, 即 2024-01-01T15:30:00Z
+     */
+    private static final long EPOCH_MILLI =
+        LocalDateTime.of(2024, 1, 1, 23, 30).atZone(SHANGHAI).toInstant().toEpochMilli();
+
+    @Test
+    void dimDateUsesGivenZone() {
+        assertThat(ConverterStrategy.TO_DIM_DATE.convert(new Date(EPOCH_MILLI), SHANGHAI)).isEqualTo(20240101);
+        assertThat(ConverterStrategy.TO_DIM_DATE.convert(EPOCH_MILLI, ZoneId.of("America/New_York")))
+            .isEqualTo(20240101);
+        assertThat(ConverterStrategy.TO_DIM_DATE.convert(EPOCH_MILLI + 3_600_000L, SHANGHAI)).isEqualTo(20240102);
+        assertThat(ConverterStrategy.TO_DIM_DATE.convert(LocalDate.of(2024, 3, 5), SHANGHAI)).isEqualTo(20240305);
+        assertThat(ConverterStrategy.TO_DIM_DATE.convert(LocalDateTime.of(2024, 3, 5, 23, 59), SHANGHAI))
+            .isEqualTo(20240305);
+    }
+
+    @Test
+    void dateBoundaries() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        assertThat(ConverterStrategy.TO_DATE_START.convert(EPOCH_MILLI, SHANGHAI)).isEqualTo(day.atStartOfDay());
+        assertThat(ConverterStrategy.TO_DATE_END.convert(day, SHANGHAI)).isEqualTo(day.atTime(23, 59, 59, 999_999_999));
+        assertThat(ConverterStrategy.TO_DATETIME.convert(new java.sql.Date(EPOCH_MILLI), SHANGHAI))
+            .isEqualTo(LocalDateTime.of(2024, 1, 1, 23, 30));
+    }
+
+    @Test
+    void epochStrategies() {
+        assertThat(ConverterStrategy.TO_EPOCH_DAY.convert(LocalDate.of(1970, 1, 2), SHANGHAI)).isEqualTo(1L);
+        assertThat(ConverterStrategy.TO_EPOCH_DAY.convert(EPOCH_MILLI, SHANGHAI))
+            .isEqualTo(LocalDate.of(2024, 1, 1).toEpochDay());
+        assertThat(ConverterStrategy.TO_EPOCH_SECOND.convert(EPOCH_MILLI, SHANGHAI)).isEqualTo(EPOCH_MILLI / 1000);
+        assertThat(ConverterStrategy.TO_EPOCH_SECOND.convert(LocalDateTime.of(1970, 1, 1, 0, 1), ZoneOffset.UTC))
+            .isEqualTo(60L);
+    }
+
+    @Test
+    void nullStaysNull() {
+        for (ConverterStrategy strategy : ConverterStrategy.values()) {
+            assertThat(strategy.convert(null, SHANGHAI)).isNull();
+        }
+    }
+}
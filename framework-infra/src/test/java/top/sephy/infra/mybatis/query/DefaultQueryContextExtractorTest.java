@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import top.sephy.infra.paging.KeysetCursor;
+import top.sephy.infra.paging.KeysetQuery;
+import top.sephy.infra.paging.QueryObject;
+
+class DefaultQueryContextExtractorTest {
+
+    private final DefaultQueryContextExtractor extractor = new DefaultQueryContextExtractor(true);
+
+    @Test
+    void extractsConditionsAndParamsInOnePass() {
+        UserQuery query = new UserQuery();
+        query.setUserId(12L);
+        query.setUserName("tom");
+        Map<String, Object> params = new HashMap<>();
+
+        QueryContext context = extractor.extract(query, params);
+
+        assertThat(context.getExpressionMap()).containsOnlyKeys("userId", "userName");
+        QueryExpression<Object> userId = context.getExpressionMap().get("userId");
+        assertThat(userId.getField()).isEqualTo("u.user_id");
+        assertThat(userId.getVal()).isEqualTo(12L);
+        QueryExpression<Object> userName = context.getExpressionMap().get("userName");
+        assertThat(userName.getOp()).isEqualTo(QueryOperator.LIKE);
+        assertThat(userName.getVal()).isEqualTo("%tom%");
+
+        assertThat(params).containsEntry("userId", 12L).containsEntry("userName", "tom").containsEntry("status", null)
+            .containsEntry("pageNum", 1).containsEntry("pageSize", 20);
+    }
+
+    @Test
+    void blankValueIsIgnored() {
+        UserQuery query = new UserQuery();
+        query.setUserName("  ");
+
+        QueryContext context = extractor.extract(query);
+
+        assertThat(context.getExpressions()).isEmpty();
+    }
+
+    @Test
+    void buildsWhereSqlForPresentConditions() {
+        UserQuery query = new UserQuery();
+        query.setUserName("tom");
+        query.setStatuses(Set.of(1));
+
+        QueryContext context = extractor.extract(query);
+
+        assertThat(context.getWhereSql())
+            .isEqualTo("user_name like #{_whereValues.userName} AND status in (#{_whereValues.statuses[0]})");
+        assertThat(context.getWhereValues()).containsEntry("userName", "%tom%").containsEntry("statuses", List.of(1));
+
+        query.setStatuses(Set.of());
+        assertThat(extractor.extract(query).getWhereSql()).isEqualTo("user_name like #{_whereValues.userName} AND 1 = 0");
+
+        assertThat(extractor.extract(new UserQuery()).getWhereSql()).isEmpty();
+    }
+
+    @Test
+    void keysetFirstPageOnlyOrders() {
+        OrderQuery query = new OrderQuery();
+        query.setSortField("createTime");
+        query.setDescending(true);
+
+        QueryContext context = extractor.extract(query);
+
+        assertThat(context.getOrderBySql()).isEqualTo("create_time DESC, id DESC");
+        assertThat(context.getWhereSql()).isEmpty();
+    }
+
+    @Test
+    void keysetCursorAddsSeekPredicate() {
+        LocalDateTime createTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        OrderQuery query = new OrderQuery();
+        query.setStatus(1);
+        query.setSortField("createTime");
+        query.setCursor(new KeysetCursor("createTime", false, createTime, 42L).encode());
+
+        QueryContext context = extractor.extract(query);
+
+        assertThat(context.getWhereSql()).isEqualTo("status = #{_whereValues.status}"
+            + " AND (create_time, id) > (#{_whereValues._keysetSort}, #{_whereValues._keysetId})");
+        assertThat(context.getWhereValues()).containsEntry("_keysetSort", createTime).containsEntry("_keysetId", 42);
+        assertThat(context.getOrderBySql()).isEqualTo("create_time ASC, id ASC");
+    }
+
+    @Test
+    void keysetByIdUsesSingleColumn() {
+        OrderQuery query = new OrderQuery();
+        query.setCursor(new KeysetCursor(null, false, null, 7).encode());
+
+        QueryContext context = extractor.extract(query);
+
+        assertThat(context.getWhereSql()).isEqualTo("id > #{_whereValues._keysetId}");
+        assertThat(context.getOrderBySql()).isEqualTo("id ASC");
+    }
+
+    @Test
+    void keysetRejectsUnsortableFieldAndMismatchedCursor() {
+        OrderQuery query = new OrderQuery();
+        query.setSortField("status");
+        assertThatThrownBy(() -> extractor.extract(query)).isInstanceOf(IllegalArgumentException.class);
+
+        query.setSortField("createTime");
+        query.setCursor(new KeysetCursor(null, false, null, 7).encode());
+        assertThatThrownBy(() -> extractor.extract(query)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void paramsFollowJacksonPropertyNamesButKeepJavaTypes() {
+        ParamQuery query = new ParamQuery();
+        query.setKeyword("tom");
+        query.setSecret("s");
+        query.setBirthday(LocalDate.of(2024, 1, 2));
+        query.hidden = "h";
+        Map<String, Object> params = new HashMap<>();
+
+        QueryContext context = extractor.extract(query, params);
+
+        // 与 Jackson 一致: 重命名, 忽略, 计算属性, 没有 getter 的私有字段不可见
+        assertThat(params).containsEntry("kw", "tom").containsEntry("displayName", "TOM")
+            .doesNotContainKeys("keyword", "secret", "hidden");
+        // 值保持 Java 类型, 不再格式化为字符串
+        assertThat(params.get("birthday")).isEqualTo(LocalDate.of(2024, 1, 2));
+        // 查询条件按字段名索引, Jackson 不可见的字段不生成条件
+        assertThat(context.getExpressionMap()).containsOnlyKeys("keyword", "birthday");
+        assertThat(context.getWhereSql()).doesNotContain("secret", "hidden");
+    }
+
+    @Test
+    void dateConditionKeepsValueByDefault() {
+        LocalDateTime createTime = LocalDateTime.of(2024, 1, 2, 0, 0);
+        OrderQuery query = new OrderQuery();
+        query.setCreateTime(createTime);
+
+        QueryContext context = extractor.extract(query);
+
+        QueryExpression<Object> expression = context.getExpressionMap().get("createTime");
+        assertThat(expression.getOp()).isEqualTo(QueryOperator.GE);
+        assertThat(expression.getVal()).isEqualTo(createTime);
+        assertThat(context.getWhereValues()).containsEntry("createTime", createTime);
+    }
+
+    static class ParamQuery extends QueryObject {
+
+        @Getter
+        @Setter
+        @JsonProperty("kw")
+        private String keyword;
+
+        @Getter
+        @Setter
+        @JsonIgnore
+        private String secret;
+
+        @Getter
+        @Setter
+        private LocalDate birthday;
+
+        /**
+         * 没有 getter, Jackson 不可见
+         */
+        private String hidden;
+
+        public String getDisplayName() {
+            return keyword == null ? null : keyword.toUpperCase();
+        }
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class OrderQuery extends KeysetQuery {
+
+        private Integer status;
+
+        @QueryCondition(operator = QueryOperator.GE, sortable = true)
+        private LocalDateTime createTime;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class UserQuery extends QueryObject {
+
+        @QueryCondition(tableAlias = "u")
+        private Long userId;
+
+        @QueryCondition(operator = QueryOperator.LIKE, converterStrategy = ConverterStrategy.LIKE_STRING)
+        private String userName;
+
+        private Integer status;
+
+        @QueryCondition(name = "status", operator = QueryOperator.IN)
+        private Set<Integer> statuses;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ComaStringCodecTest {
+
+    @Test
+    void skipsEmptyTokens() {
+        assertThat(new LongListHandler().toCollection("1,,22,333,")).containsExactly(1L, 22L, 333L);
+        assertThat(new StringSetHandler().toCollection(",a,b,a")).containsExactlyInAnyOrder("a", "b");
+        assertThat(new IntegerListHandler().toCollection(" ")).isEmpty();
+    }
+
+    @Test
+    void decodesPrimitiveArrays() {
+        assertThat(new LongArrayHandler().toArray("3,-1,9000000000")).containsExactly(3L, -1L, 9000000000L);
+        assertThat(new IntArrayHandler().toArray("7")).containsExactly(7);
+        assertThat(new DoubleArrayHandler().toArray("1.5,2")).containsExactly(1.5, 2.0);
+        assertThat(new LongArrayHandler().toArray(null)).isEmpty();
+    }
+
+    @Test
+    void joinsWithoutBlankValues() {
+        assertThat(ComaStringCodec.join(Arrays.asList(1L, null, 2L))).isEqualTo("1,2");
+        assertThat(ComaStringCodec.join(List.of("a", " ", "b"))).isEqualTo("a,b");
+        assertThat(ComaStringCodec.join(new long[] {4, 5})).isEqualTo("4,5");
+    }
+
+    @Test
+    void compactSetIsSortedAndDistinct() {
+        CompactLongSet set = new CompactLongSetHandler().toArray("5,1,5,3");
+
+        assertThat(set.toLongArray()).containsExactly(1L, 3L, 5L);
+        assertThat(set.contains(3L)).isTrue();
+        assertThat(set.contains(4L)).isFalse();
+        assertThat(set).isEqualTo(Set.of(1L, 3L, 5L));
+        assertThat(Set.of(1L, 3L, 5L)).isEqualTo(set);
+        assertThat(set.hashCode()).isEqualTo(Set.of(1L, 3L, 5L).hashCode());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.mybatis.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+class JsonTypeHandlerTest {
+
+    @Test
+    void readsObjectFromCharacterStream() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getCharacterStream("tag")).thenReturn(new StringReader("{\"id\":9007199254740993,\"name\":\"vip\"}"));
+
+        Tag tag = new JsonTypeHandler<>(Tag.class).getNullableResult(rs, "tag");
+
+        assertThat(tag).isEqualTo(new Tag(9007199254740993L, "vip"));
+    }
+
+    @Test
+    void emptyOrNullColumnIsNull() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getCharacterStream(1)).thenReturn(new StringReader("  "));
+
+        assertThat(new JsonTypeHandler<>(Tag.class).getNullableResult(rs, 1)).isNull();
+        assertThat(new JsonNodeTypeHandler().getNullableResult(rs, 2)).isNull();
+    }
+
+    @Test
+    void readsTypedListFromBinaryStream() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBinaryStream("tags"))
+            .thenReturn(new ByteArrayInputStream("[{\"id\":1,\"name\":\"a\"}]".getBytes(StandardCharsets.UTF_8)));
+
+        List<Tag> tags = new TagListHandler().getNullableResult(rs, "tags");
+
+        assertThat(tags).containsExactly(new Tag(1L, "a"));
+    }
+
+    @Test
+    void readsMapAndTree() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getCharacterStream("ext")).thenReturn(new StringReader("{\"b\":1,\"a\":[true]}"));
+        when(rs.getCharacterStream("raw")).thenReturn(new StringReader("{\"x\":{\"y\":2}}"));
+
+        Map<String, Object> ext = new JsonMapTypeHandler<>().getNullableResult(rs, "ext");
+        JsonNode raw = new JsonNodeTypeHandler().getNullableResult(rs, "raw");
+
+        assertThat(ext).containsExactly(Map.entry("b", 1), Map.entry("a", List.of(true)));
+        assertThat(raw.at("/x/y").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void writesPlainLongsAndSkipsNulls() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        new JsonTypeHandler<>(Tag.class).setNonNullParameter(ps, 1, new Tag(5L, null), null);
+
+        verify(ps).setString(1, "{\"id\":5}");
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Tag {
+
+        private Long id;
+
+        private String name;
+    }
+
+    static class TagListHandler extends JsonListTypeHandler<Tag> {
+
+        TagListHandler() {
+            super(Tag.class);
+        }
+
+        @Override
+        protected boolean readBinaryStream() {
+            return true;
+        }
+    }
+}
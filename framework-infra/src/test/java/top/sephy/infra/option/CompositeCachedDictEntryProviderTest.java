@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class CompositeCachedDictEntryProviderTest {
+
+    private VersionedProvider single;
+
+    private MapProvider multi;
+
+    private CompositeCachedDictEntryProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        single = new VersionedProvider();
+        multi = new MapProvider();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("single", single);
+        beanFactory.registerSingleton("multi", multi);
+        provider = new CompositeCachedDictEntryProvider(beanFactory.getBeanProvider(MultiDictEntryListProvider.class),
+            beanFactory.getBeanProvider(DictEntryListProvider.class));
+        provider.refresh();
+    }
+
+    @Test
+    void unchangedVersionSkipsLoading() {
+        DictSnapshot before = provider.snapshot();
+
+        provider.refresh();
+
+        assertThat(single.loads).isEqualTo(1);
+        assertThat(provider.snapshot()).isSameAs(before);
+    }
+
+    @Test
+    void changedVersionRebuildsOnlyThatType() {
+        DictIndex gender = provider.getIndex("gender");
+        single.version++;
+        single.options = List.of(new DictEntry<>("1", "启用", false, "status"));
+
+        provider.refresh();
+
+        assertThat(single.loads).isEqualTo(2);
+        assertThat(provider.getLabel("status", 1, true, false, "")).isEqualTo("启用");
+        assertThat(provider.getIndex("gender")).isSameAs(gender);
+        assertThat(provider.snapshot().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void sameContentUnderNewVersionIsLoadedOnce() {
+        DictIndex status = provider.getIndex("status");
+        single.version++;
+
+        provider.refresh();
+        provider.refresh();
+
+        assertThat(single.loads).isEqualTo(2);
+        assertThat(provider.getIndex("status").getVersion()).isEqualTo(single.version);
+        assertThat(provider.getIndex("status").getOptions()).isSameAs(status.getOptions());
+    }
+
+    @Test
+    void targetedRefreshLoadsMultiProviderOnce() {
+        int loads = multi.loads;
+        multi.options.put("gender", List.of(new DictEntry<>("F", "女", false, "gender")));
+
+        provider.refresh(List.of("gender"));
+
+        assertThat(multi.loads).isEqualTo(loads + 1);
+        assertThat(provider.getLabel("gender", "F", true, false, "")).isEqualTo("女");
+    }
+
+    @Test
+    void removedTypesAreDropped() {
+        multi.options.remove("level");
+
+        provider.refresh();
+
+        assertThat(provider.types()).containsExactlyInAnyOrder("status", "gender");
+        assertThat(provider.getOptionsByType("level")).isEmpty();
+    }
+
+    static class VersionedProvider implements DictEntryListProvider<String, String> {
+
+        long version = 1L;
+
+        int loads;
+
+        List<DictEntry<String, String>> options = List.of(new DictEntry<>("1", "正常", false, "status"));
+
+        @Override
+        public String getType() {
+            return "status";
+        }
+
+        @Override
+        public List<DictEntry<String, String>> getOptions() {
+            loads++;
+            return options;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    static class MapProvider implements MultiDictEntryListProvider<String, String> {
+
+        final Map<String, List<DictEntry<String, String>>> options = new HashMap<>(
+            Map.of("gender", List.of(new DictEntry<>("M", "男", false, "gender")), "level",
+                List.of(new DictEntry<>("1", "一级", false, "level"))));
+
+        int loads;
+
+        @Override
+        public Map<String, List<DictEntry<String, String>>> optionsMap() {
+            loads++;
+            return options;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DictIndexTest {
+
+    private final DictIndex index = new DictIndex(List.of(new DictEntry<>("A", "启用", false, "status"),
+        new DictEntry<>("b", "禁用", false, "status"), new DictEntry<>(3, "删除", false, "status"),
+        new DictEntry<>("a", "重复", false, "status")));
+
+    @Test
+    void exactLookUp() {
+        assertThat(index.lookUp(3, false, true).getLabel()).isEqualTo("删除");
+        assertThat(index.lookUp("3", false, true)).isNull();
+    }
+
+    @Test
+    void stringLookUp() {
+        assertThat(index.lookUp("3", true, true).getLabel()).isEqualTo("删除");
+        assertThat(index.lookUp("a", true, true).getLabel()).isEqualTo("重复");
+        assertThat(index.lookUp("B", true, true)).isNull();
+    }
+
+    @Test
+    void ignoreCaseLookUpKeepsFirstMatch() {
+        assertThat(index.lookUp("a", true, false).getLabel()).isEqualTo("启用");
+        assertThat(index.lookUp("B", true, false).getLabel()).isEqualTo("禁用");
+    }
+
+    @Test
+    void nonStringValueMatchesStringForm() {
+        DictIndex stringValues = new DictIndex(List.of(new DictEntry<>("1", "男", false, "gender")));
+        assertThat(stringValues.lookUp(1, true, true).getLabel()).isEqualTo("男");
+        assertThat(stringValues.lookUp(1L, true, false).getLabel()).isEqualTo("男");
+        assertThat(stringValues.lookUp(2, true, false)).isNull();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.option.invalidation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import top.sephy.infra.option.CompositeCachedDictEntryProvider;
+import top.sephy.infra.option.DictEntry;
+import top.sephy.infra.option.DictEntryListProvider;
+import top.sephy.infra.option.MultiDictEntryListProvider;
+
+class DictCacheInvalidatorTest {
+
+    private final InMemoryDictInvalidationTransport transport = new InMemoryDictInvalidationTransport();
+
+    private final StatusProvider dataSource = new StatusProvider();
+
+    private CompositeCachedDictEntryProvider node1;
+
+    private CompositeCachedDictEntryProvider node2;
+
+    private DictCacheInvalidator invalidator1;
+
+    private DictCacheInvalidator invalidator2;
+
+    @BeforeEach
+    void setUp() {
+        node1 = newNode();
+        node2 = newNode();
+        invalidator1 = new DictCacheInvalidator(node1, transport, Duration.ofMillis(50), Duration.ofSeconds(1));
+        invalidator2 = new DictCacheInvalidator(node2, transport, Duration.ofMillis(50), Duration.ofSeconds(1));
+        invalidator1.start();
+        invalidator2.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        invalidator1.stop();
+        invalidator2.stop();
+    }
+
+    @Test
+    void burstOfInvalidationsReloadsOncePerNode() throws InterruptedException {
+        int loadsBefore = dataSource.loads.get();
+        dataSource.label = "已启用";
+
+        invalidator1.invalidate("status");
+        invalidator1.invalidate("status");
+        invalidator2.invalidate("status");
+
+        awaitLabel(node1, "已启用");
+        awaitLabel(node2, "已启用");
+        Thread.sleep(150);
+        assertThat(dataSource.loads.get() - loadsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void stoppedNodeIgnoresInvalidation() throws InterruptedException {
+        invalidator2.stop();
+        dataSource.label = "已启用";
+
+        invalidator1.invalidate("status");
+
+        awaitLabel(node1, "已启用");
+        assertThat(node2.getLabel("status", "1", true, false, "")).isEqualTo("启用");
+    }
+
+    private CompositeCachedDictEntryProvider newNode() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("status", dataSource);
+        CompositeCachedDictEntryProvider provider = new CompositeCachedDictEntryProvider(
+            beanFactory.getBeanProvider(MultiDictEntryListProvider.class),
+            beanFactory.getBeanProvider(DictEntryListProvider.class));
+        provider.refresh();
+        return provider;
+    }
+
+    private static void awaitLabel(CompositeCachedDictEntryProvider provider, String label)
+        throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!label.equals(provider.getLabel("status", "1", true, false, ""))) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    static class StatusProvider implements DictEntryListProvider<String, String> {
+
+        final AtomicInteger loads = new AtomicInteger();
+
+        volatile String label = "启用";
+
+        @Override
+        public String getType() {
+            return "status";
+        }
+
+        @Override
+        public List<DictEntry<String, String>> getOptions() {
+            loads.incrementAndGet();
+            return List.of(new DictEntry<>("1", label, false, "status"));
+        }
+    }
+}
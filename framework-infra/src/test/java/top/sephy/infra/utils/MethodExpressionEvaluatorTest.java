@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022-2026 sephy.top
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.sephy.infra.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+class MethodExpressionEvaluatorTest {
+
+    private final MethodExpressionEvaluator evaluator = new MethodExpressionEvaluator(SpelCompilerMode.MIXED);
+
+    @Test
+    void overloadsDoNotShareExpressions() throws Exception {
+        Method byId = Target.class.getDeclaredMethod("lock", Long.class);
+        Method byName = Target.class.getDeclaredMethod("lock", String.class, String.class);
+
+        String first = evaluator.get(byId, "order:#{#id}", () -> new String[] {"id"})
+            .getValue(new Object[] {1L}, String.class);
+        String second = evaluator.get(byName, "order:#{#name}-#{#suffix}", () -> new String[] {"name", "suffix"})
+            .getValue(new Object[] {"a", "b"}, String.class);
+
+        assertThat(first).isEqualTo("order:1");
+        assertThat(second).isEqualTo("order:a-b");
+    }
+
+    @Test
+    void compiledExpressionKeepsReadingArguments() throws Exception {
+        Method method = Target.class.getDeclaredMethod("lock", String.class, String.class);
+        MethodExpressionEvaluator.MethodExpression expression =
+            evaluator.get(method, "#{#name.length() + #suffix.length()}", () -> new String[] {"name", "suffix"});
+
+        // MIXED 模式下执行若干次后会切换到编译后的字节码
+        for (int i = 0; i < 200; i++) {
+            assertThat(expression.getValue(new Object[] {"ab", "c" + "d".repeat(i % 3)})).isEqualTo(3 + i % 3);
+        }
+        assertThat(evaluator.get(method, "#{#name.length() + #suffix.length()}")).isSameAs(expression);
+    }
+
+    @Test
+    void singleExpressionReturnsRawValue() throws Exception {
+        Method method = Target.class.getDeclaredMethod("lock", String.class, String.class);
+
+        Object value = evaluator.get(method, "#{ {#name, #suffix} }", () -> new String[] {"name", "suffix"})
+            .getValue(new Object[] {"a", "b"});
+
+        assertThat(value).isEqualTo(List.of("a", "b"));
+    }
+
+    @Test
+    void argumentsAreReadOnly() throws Exception {
+        Method method = Target.class.getDeclaredMethod("lock", Long.class);
+
+        assertThatThrownBy(
+            () -> evaluator.get(method, "#{#id = 2}", () -> new String[] {"id"}).getValue(new Object[] {1L}))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    static class Target {
+
+        void lock(Long id) {}
+
+        void lock(String name, String suffix) {}
+    }
+}